@@ -0,0 +1,98 @@
+package com.hazratdev.HazratHotel.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cost of writing the room listing {@link Response}: serializing it with plain Jackson, with the Blackbird module,
+ * copying the bytes pre-serialized per catalog version, and gzipping them the way the server compresses responses.
+ * The setup prints the payload size with and without gzip.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseSerializationBenchmark {
+
+    @Param({"10", "1000"})
+    private int rooms;
+
+    private final ObjectMapper reflective = new ObjectMapper();
+    private final ObjectMapper blackbird = new ObjectMapper().registerModule(new BlackbirdModule());
+
+    private Response response;
+    private byte[] preSerialized;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<RoomDTO> roomList = new ArrayList<>(rooms);
+        for (int i = 0; i < rooms; i++) {
+            RoomDTO room = new RoomDTO((long) i, i % 3 == 0 ? "Suite" : "Double", BigDecimal.valueOf(90 + i % 50),
+                    "/images/ab/cd/" + Integer.toHexString(i * 7919) + ".jpg",
+                    "Room " + i + " on floor " + i % 12 + ", with a queen size bed, a desk by the window, a rain shower "
+                            + "and a view over the old town. Breakfast is served downstairs from seven to eleven.");
+            Map<Integer, String> variants = new LinkedHashMap<>();
+            for (int width : new int[]{160, 480, 1200}) {
+                variants.put(width, room.getRoomPhotoUrl() + "?w=" + width);
+            }
+            room.setRoomPhotoVariants(variants);
+            roomList.add(room);
+        }
+        response = new Response();
+        response.setStatusCode(200);
+        response.setMessage("All rooms found");
+        response.setRoomList(roomList);
+
+        preSerialized = blackbird.writeValueAsBytes(response);
+        System.out.printf("%nresponse with %d rooms: %d bytes, %d bytes gzipped%n", rooms, preSerialized.length, gzip().length);
+    }
+
+    @Benchmark
+    public byte[] serializeReflective() throws IOException {
+        return reflective.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializeBlackbird() throws IOException {
+        return blackbird.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] copyPreSerialized() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(preSerialized.length);
+        out.writeBytes(preSerialized);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] gzip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(preSerialized.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(preSerialized);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,46 @@
+package com.hazratdev.HazratHotel.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Confirmation code generation, run on every booking, and the check run on every lookup. The threaded variant
+ * shows contention on the shared sequence.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfirmationCodeBenchmark {
+
+    private final ConfirmationCodeGenerator generator = new ConfirmationCodeGenerator();
+    private final String code = generator.next();
+
+    @Benchmark
+    public String next() {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String nextThreaded() {
+        return generator.next();
+    }
+
+    @Benchmark
+    public String lookupKey() {
+        return ConfirmationCodeGenerator.lookupKey(code);
+    }
+}
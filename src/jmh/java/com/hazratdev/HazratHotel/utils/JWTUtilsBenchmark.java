@@ -0,0 +1,80 @@
+package com.hazratdev.HazratHotel.utils;
+
+import com.hazratdev.HazratHotel.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing and the per-request token checks. The {@code uncached} benchmarks cycle through more tokens
+ * than a one-entry cache holds, so every call verifies the signature.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JWTUtilsBenchmark {
+
+    private static final int TOKENS = 1024;
+
+    private JWTUtils jwtUtils;
+    private JWTUtils uncachedJwtUtils;
+    private User user;
+    private String token;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JWTUtils();
+        uncachedJwtUtils = new JWTUtils();
+        ReflectionTestUtils.setField(uncachedJwtUtils, "maxCachedTokens", 1);
+
+        user = new User();
+        user.setId(1L);
+        user.setEmail("guest@example.com");
+        user.setRole("USER");
+        token = jwtUtils.generateToken(user);
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            User other = new User();
+            other.setId((long) i);
+            other.setEmail("guest" + i + "@example.com");
+            other.setRole("USER");
+            tokens[i] = jwtUtils.generateToken(other);
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtils.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isValidToken() {
+        return jwtUtils.isValidToken(token, user);
+    }
+
+    @Benchmark
+    public String extractUsernameUncached() {
+        next = (next + 1) & (TOKENS - 1);
+        return uncachedJwtUtils.extractUsername(tokens[next]);
+    }
+}
@@ -0,0 +1,85 @@
+package com.hazratdev.HazratHotel.utils;
+
+import com.hazratdev.HazratHotel.dto.RoomDTO;
+import com.hazratdev.HazratHotel.dto.UserDTO;
+import com.hazratdev.HazratHotel.entity.Booking;
+import com.hazratdev.HazratHotel.entity.Room;
+import com.hazratdev.HazratHotel.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping, the per-row work of the room listing and the booking history.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UtilsBenchmark {
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private List<Room> rooms;
+    private User userWithBookings;
+
+    @Setup
+    public void setUp() {
+        rooms = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Room room = new Room();
+            room.setId((long) i);
+            room.setRoomType(i % 2 == 0 ? "Double" : "Suite");
+            room.setRoomPrice(BigDecimal.valueOf(100 + i));
+            room.setRoomPhotoUrl("/images/ab/cd/" + i + ".jpg");
+            room.setRoomDescription("Room number " + i);
+            rooms.add(room);
+        }
+
+        userWithBookings = new User();
+        userWithBookings.setId(1L);
+        userWithBookings.setName("Guest");
+        userWithBookings.setEmail("guest@example.com");
+        userWithBookings.setPhoneNumber("0123456789");
+        userWithBookings.setRole("USER");
+        LocalDate checkIn = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < size; i++) {
+            Booking booking = new Booking();
+            booking.setId((long) i);
+            booking.setCheckInDate(checkIn.plusDays(i * 3L));
+            booking.setCheckOutDate(checkIn.plusDays(i * 3L + 2));
+            booking.setNumOfAdults(2);
+            booking.setBookingConfirmationCode("CODE" + i);
+            booking.setUser(userWithBookings);
+            booking.setRoom(rooms.get(i));
+            userWithBookings.getBookings().add(booking);
+        }
+    }
+
+    @Benchmark
+    public List<RoomDTO> mapRoomListEntityToRoomListDTO() {
+        return Utils.mapRoomListEntityToRoomListDTO(rooms);
+    }
+
+    @Benchmark
+    public UserDTO mapUserEntityToUserDTOPlusUserBookingsAndRoom() {
+        return Utils.mapUserEntityToUserDTOPlusUserBookingsAndRoom(userWithBookings);
+    }
+}
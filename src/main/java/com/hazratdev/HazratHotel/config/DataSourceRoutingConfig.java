@@ -0,0 +1,95 @@
+package com.hazratdev.HazratHotel.config;
+
+import com.hazratdev.HazratHotel.datasource.ReadYourWrites;
+import com.hazratdev.HazratHotel.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the single datasource with a {@link ReplicaRoutingDataSource} once {@code datasource.replica.urls} lists
+ * one or more replicas, comma separated. The primary keeps the {@code spring.datasource} settings, the replicas
+ * share its pool settings and its credentials unless {@code datasource.replica.username} and
+ * {@code datasource.replica.password} are set. Replica pools open on first use, so a replica that is down at startup
+ * only keeps its reads on the primary.
+ */
+@Configuration
+@ConditionalOnExpression("!'${datasource.replica.urls:}'.isBlank()")
+public class DataSourceRoutingConfig {
+
+    @Value("${datasource.replica.urls}")
+    private String replicaUrls;
+
+    @Value("${datasource.replica.username:}")
+    private String replicaUsername;
+
+    @Value("${datasource.replica.password:}")
+    private String replicaPassword;
+
+    @Value("${datasource.replica.lag-query:SHOW REPLICA STATUS}")
+    private String lagQuery;
+
+    @Value("${datasource.replica.max-lag-seconds:2}")
+    private long maxLagSeconds;
+
+    @Value("${datasource.replica.lag-check-interval-ms:1000}")
+    private long lagCheckIntervalMillis;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource, ReadYourWrites readYourWrites) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : replicaUrls.split(",")) {
+            if (url.isBlank()) continue;
+            HikariDataSource replica = new HikariDataSource();
+            primaryDataSource.copyStateTo(replica);
+            replica.setJdbcUrl(url.trim());
+            if (!replicaUsername.isBlank()) {
+                replica.setUsername(replicaUsername);
+                replica.setPassword(replicaPassword);
+            }
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setReadOnly(true);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWrites, lagQuery, maxLagSeconds);
+        routingDataSource.startLagChecks(lagCheckIntervalMillis);
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Hibernate otherwise keeps the connection of the first transaction until the entity manager closes, which with
+     * open-in-view is the end of the request, so a write following a read-only transaction would reach the replica.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
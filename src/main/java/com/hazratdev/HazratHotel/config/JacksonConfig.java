@@ -0,0 +1,19 @@
+package com.hazratdev.HazratHotel.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Replaces Jackson's reflective getter and setter calls with generated lambdas, which Spring Boot registers
+     * on the application's ObjectMapper.
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
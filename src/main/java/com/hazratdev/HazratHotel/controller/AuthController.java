@@ -3,8 +3,12 @@ package com.hazratdev.HazratHotel.controller;
 import com.hazratdev.HazratHotel.dto.LoginRequest;
 import com.hazratdev.HazratHotel.dto.Response;
 import com.hazratdev.HazratHotel.entity.User;
+import com.hazratdev.HazratHotel.security.LoginThrottle;
 import com.hazratdev.HazratHotel.service.interfac.IUserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -18,16 +22,43 @@ public class AuthController {
     @Autowired
     private IUserService userService;
 
+    @Autowired
+    private LoginThrottle loginThrottle;
+
     @PostMapping("/register")
-    public ResponseEntity<Response> register(@RequestBody  User user) {
-        Response response = userService.register(user);
-        return ResponseEntity.status(response.getStatusCode()).body(response);
+    public ResponseEntity<Response> register(@RequestBody  User user, HttpServletRequest request) {
+        long retryAfterSeconds = loginThrottle.tryAttempt(request.getRemoteAddr(), user.getEmail());
+        if (retryAfterSeconds > 0) {
+            return tooManyAttempts(retryAfterSeconds);
+        }
+        return respond(userService.register(user));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<Response> login(@RequestBody LoginRequest loginRequest) {
-        Response response = userService.login(loginRequest);
+    public ResponseEntity<Response> login(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        long retryAfterSeconds = loginThrottle.tryAttempt(request.getRemoteAddr(), loginRequest.getEmail());
+        if (retryAfterSeconds > 0) {
+            return tooManyAttempts(retryAfterSeconds);
+        }
+        return respond(userService.login(loginRequest));
+    }
+
+    /**
+     * A 503 means password hashing is saturated, which clears within a second or so.
+     */
+    private ResponseEntity<Response> respond(Response response) {
+        if (response.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+            return ResponseEntity.status(response.getStatusCode()).header(HttpHeaders.RETRY_AFTER, "1").body(response);
+        }
         return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
 
+    private ResponseEntity<Response> tooManyAttempts(long retryAfterSeconds) {
+        Response response = new Response();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setMessage("Too many attempts, try again in " + retryAfterSeconds + " seconds");
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(response);
     }
 }
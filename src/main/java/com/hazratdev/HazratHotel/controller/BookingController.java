@@ -0,0 +1,70 @@
+package com.hazratdev.HazratHotel.controller;
+
+import com.hazratdev.HazratHotel.dto.BookingImportRow;
+import com.hazratdev.HazratHotel.dto.BookingRequest;
+import com.hazratdev.HazratHotel.dto.LockMetricsDTO;
+import com.hazratdev.HazratHotel.dto.Response;
+import com.hazratdev.HazratHotel.service.interfac.IBookingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/bookings")
+public class BookingController {
+
+    @Autowired
+    private IBookingService bookingService;
+
+    /**
+     * Users book for themselves, admins for anyone.
+     */
+    @PostMapping("/book-room/{roomId}/{userId}")
+    @PreAuthorize("hasAuthority('ADMIN') or (hasAuthority('USER') and @ownership.isCurrentUser(#userId))")
+    public ResponseEntity<Response> saveBooking(@PathVariable Long roomId, @PathVariable Long userId, @RequestBody BookingRequest bookingRequest) {
+        Response response = bookingService.saveBooking(roomId, userId, bookingRequest);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> importBookings(@RequestBody List<BookingImportRow> rows) {
+        Response response = bookingService.importBookings(rows);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @GetMapping("/all")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> getAllBookings() {
+        Response response = bookingService.getAllBookings();
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @GetMapping("/get-by-confirmation-code/{confirmationCode}")
+    public ResponseEntity<Response> getBookingByConfirmationCode(@PathVariable String confirmationCode) {
+        Response response = bookingService.findBookingByConfirmationCode(confirmationCode);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @DeleteMapping("/cancel/{bookingId}")
+    @PreAuthorize("hasAuthority('ADMIN') or (hasAuthority('USER') and @ownership.ownsBooking(#bookingId))")
+    public ResponseEntity<Response> cancelBooking(@PathVariable Long bookingId) {
+        Response response = bookingService.cancelBooking(bookingId);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @GetMapping("/lock-metrics")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<LockMetricsDTO> getLockMetrics() {
+        return ResponseEntity.ok(bookingService.getLockMetrics());
+    }
+}
@@ -0,0 +1,180 @@
+package com.hazratdev.HazratHotel.controller;
+
+import com.hazratdev.HazratHotel.service.storage.ImageStorage;
+import com.hazratdev.HazratHotel.service.storage.ImageVariantCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Serves stored room images. File bodies are handed to Tomcat's sendfile support when the connector offers it,
+ * otherwise copied with {@link FileChannel#transferTo}, so image bytes never pass through the heap as arrays.
+ * With {@code ?w=} a downscaled variant from {@link ImageVariantCache} is served instead of the original.
+ */
+@RestController
+@RequestMapping("/images")
+public class ImageController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final Pattern CONTENT_HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE = "public, max-age=3600";
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    @Autowired
+    private ImageVariantCache imageVariantCache;
+
+    @GetMapping("/{*path}")
+    public void getImage(@PathVariable String path,
+                         @RequestParam(value = "w", required = false) Integer width,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String relativePath = path.startsWith("/") ? path.substring(1) : path;
+        Optional<Path> found = imageStorage.resolve(relativePath);
+        if (found.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Path file = found.get();
+        String baseName = StringUtils.stripFilenameExtension(file.getFileName().toString());
+        if (width != null && width > 0) {
+            Path variant = imageVariantCache.variant(file, relativePath, width);
+            if (!variant.equals(file)) {
+                baseName = baseName + "-w" + ImageVariantCache.bucket(width);
+                file = variant;
+            }
+        }
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        boolean contentAddressed = CONTENT_HASH.matcher(StringUtils.stripFilenameExtension(file.getFileName().toString())).matches();
+        String eTag = "\"" + (contentAddressed ? baseName : Long.toHexString(lastModified) + "-" + Long.toHexString(length)) + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, contentAddressed ? IMMUTABLE : REVALIDATE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && namesTag(ifNoneMatch, eTag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), eTag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // several ranges would need a multipart body, answering with the whole file is allowed instead
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                if (length == 0 || !satisfiable(rangeHeader, length)) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            while (position <= end) {
+                long sent = channel.transferTo(position, end + 1 - position, target);
+                if (sent <= 0) break;
+                position += sent;
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Whether an If-None-Match header names the current tag or is {@code *}. Tags are compared weakly, as the header requires.
+     */
+    private static boolean namesTag(String ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(eTag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * A range is honoured only while the client's copy is current: If-Range must carry the strong tag
+     * or a date no earlier than the file's modification.
+     */
+    private static boolean ifRangeMatches(String ifRange, String eTag, long lastModified) {
+        if (ifRange == null) return true;
+        String value = ifRange.trim();
+        if (value.startsWith("\"")) return value.equals(eTag);
+        if (value.startsWith("W/")) return false;
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.IF_RANGE, value);
+            return headers.getFirstDate(HttpHeaders.IF_RANGE) / 1000 >= lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static boolean satisfiable(String rangeHeader, long length) {
+        String spec = rangeHeader.substring(rangeHeader.indexOf('=') + 1).trim();
+        if (spec.startsWith("-")) return !spec.equals("-0");
+        long first = Long.parseLong(spec.substring(0, spec.indexOf('-')).trim());
+        return first < length;
+    }
+}
@@ -0,0 +1,234 @@
+package com.hazratdev.HazratHotel.controller;
+
+import com.hazratdev.HazratHotel.dto.Response;
+import com.hazratdev.HazratHotel.service.RoomCatalog;
+import com.hazratdev.HazratHotel.service.RoomCatalogImporter;
+import com.hazratdev.HazratHotel.service.interfac.IRoomService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/room")
+public class RoomController {
+
+    @Autowired
+    private IRoomService roomService;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    @Value("${room.catalog.max-age-seconds:0}")
+    private long catalogMaxAgeSeconds;
+
+    @PostMapping("/add")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> addNewRoom(
+            @RequestParam(value = "photo", required = false) MultipartFile photo,
+            @RequestParam(value = "roomType", required = false) String roomType,
+            @RequestParam(value = "roomPrice", required = false) BigDecimal roomPrice,
+            @RequestParam(value = "roomDescription", required = false) String roomDescription
+    ) {
+        if (photo == null || photo.isEmpty() || roomType == null || roomType.isBlank() || roomPrice == null) {
+            Response response = new Response();
+            response.setStatusCode(400);
+            response.setMessage("Please provide values for all fields(photo, roomType, roomPrice)");
+            return ResponseEntity.status(response.getStatusCode()).body(response);
+        }
+        Response response = roomService.addNewRoom(photo, roomType, roomPrice, roomDescription);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * Imports rooms from a CSV or NDJSON file, see {@link RoomCatalogImporter} for the fields. Progress and
+     * rejected rows are streamed back as NDJSON while the import runs.
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<?> importRooms(@RequestParam(value = "file", required = false) MultipartFile file,
+                                         @RequestParam(value = "photos", required = false) MultipartFile photos) {
+        RoomCatalogImporter.Format format = file == null || file.isEmpty() ? null : RoomCatalogImporter.Format.of(file.getOriginalFilename());
+        if (format == null) {
+            Response response = new Response();
+            response.setStatusCode(400);
+            response.setMessage("Please provide a .csv or .ndjson file");
+            return ResponseEntity.status(response.getStatusCode()).body(response);
+        }
+        StreamingResponseBody body = outputStream -> roomService.importRooms(file, format, photos, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Without parameters returns every room, with {@code after} and/or {@code limit} returns one page
+     * of rooms ordered by id together with the cursor of the next page.
+     */
+    @GetMapping("/all")
+    public ResponseEntity<?> getAllRooms(@RequestParam(required = false) Long after,
+                                         @RequestParam(required = false) Integer limit,
+                                         WebRequest request) {
+        if (catalogNotModified(request)) {
+            return notModified();
+        }
+        if (after == null && limit == null) {
+            byte[] json = roomService.getAllRoomsJson();
+            if (json != null) {
+                return ResponseEntity.ok().cacheControl(catalogCacheControl()).contentType(MediaType.APPLICATION_JSON).body(json);
+            }
+        }
+        Response response = (after == null && limit == null)
+                ? roomService.getAllRooms()
+                : roomService.getRoomsPage(after, limit);
+        return catalogResponse(response);
+    }
+
+    @GetMapping(value = "/all/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllRooms() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> roomService.streamAllRooms(outputStream));
+    }
+
+    @GetMapping("/types")
+    public ResponseEntity<byte[]> getRoomTypes(WebRequest request) {
+        if (catalogNotModified(request)) {
+            return notModified();
+        }
+        return ResponseEntity.ok().cacheControl(catalogCacheControl()).contentType(MediaType.APPLICATION_JSON).body(roomService.getAllRoomTypesJson());
+    }
+
+    @GetMapping("/room-by-id/{roomId}")
+    public ResponseEntity<Response> getRoomById(@PathVariable Long roomId, WebRequest request) {
+        if (catalogNotModified(request)) {
+            return notModified();
+        }
+        return catalogResponse(roomService.getRoomById(roomId));
+    }
+
+    @GetMapping("/all-available-rooms")
+    public ResponseEntity<Response> getAvailableRooms() {
+        Response response = roomService.getAvailableRooms();
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @GetMapping("/available-rooms-by-date-and-type")
+    public ResponseEntity<Response> getAvailableRoomsByDateAndType(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate,
+            @RequestParam(required = false) String roomType
+    ) {
+        if (checkInDate == null || checkOutDate == null || roomType == null || roomType.isBlank()) {
+            Response response = new Response();
+            response.setStatusCode(400);
+            response.setMessage("Please provide values for all fields(checkInDate, checkOutDate, roomType)");
+            return ResponseEntity.status(response.getStatusCode()).body(response);
+        }
+        Response response = roomService.getAvailableRoomByDateAndType(checkInDate, checkOutDate, roomType);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * Searches rooms by words of their type ({@code roomType}) or of their type and description ({@code q}), by
+     * price range and, with both dates, by availability. Every criterion is optional.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Response> searchRooms(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String roomType,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate
+    ) {
+        Response response = roomService.searchRooms(q, roomType, minPrice, maxPrice, checkInDate, checkOutDate);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * Free rooms of every room type for each of the {@code days} days starting at {@code start}, for month views.
+     */
+    @GetMapping("/calendar")
+    public ResponseEntity<Response> getAvailabilityCalendar(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(defaultValue = "31") int days
+    ) {
+        if (start == null) {
+            Response response = new Response();
+            response.setStatusCode(400);
+            response.setMessage("Please provide a start date");
+            return ResponseEntity.status(response.getStatusCode()).body(response);
+        }
+        Response response = roomService.getAvailabilityCalendar(start, days);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @PutMapping("/update/{roomId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> updateRoom(@PathVariable Long roomId,
+                                               @RequestParam(value = "photo", required = false) MultipartFile photo,
+                                               @RequestParam(value = "roomType", required = false) String roomType,
+                                               @RequestParam(value = "roomPrice", required = false) BigDecimal roomPrice,
+                                               @RequestParam(value = "roomDescription", required = false) String roomDescription
+    ) {
+        Response response = roomService.updateRoom(roomId, roomDescription, roomType, roomPrice, photo);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @DeleteMapping("/delete/{roomId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> deleteRoom(@PathVariable Long roomId) {
+        Response response = roomService.deleteRoom(roomId);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * Answers a conditional GET from the catalog version alone, so an unchanged poll reads neither the database
+     * nor the catalog. The tag is weak because the server may gzip the body, and it is taken before the body is
+     * built, so it's never newer than what is sent. Sets ETag and Last-Modified on the response otherwise.
+     */
+    private boolean catalogNotModified(WebRequest request) {
+        RoomCatalog.Snapshot snapshot;
+        try {
+            snapshot = roomCatalog.current();
+        } catch (RuntimeException e) {
+            return false;
+        }
+        return request.checkNotModified("W/\"" + Long.toHexString(snapshot.getVersion()) + "\"", snapshot.getLastModified().toEpochMilli());
+    }
+
+    private <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(catalogCacheControl()).build();
+    }
+
+    private ResponseEntity<Response> catalogResponse(Response response) {
+        if (response.getStatusCode() != 200) {
+            return ResponseEntity.status(response.getStatusCode()).body(response);
+        }
+        return ResponseEntity.ok().cacheControl(catalogCacheControl()).body(response);
+    }
+
+    private CacheControl catalogCacheControl() {
+        return CacheControl.maxAge(Duration.ofSeconds(catalogMaxAgeSeconds)).cachePublic().mustRevalidate();
+    }
+}
@@ -0,0 +1,75 @@
+package com.hazratdev.HazratHotel.controller;
+
+import com.hazratdev.HazratHotel.dto.Response;
+import com.hazratdev.HazratHotel.service.interfac.IUserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/users")
+public class UserController {
+
+    @Autowired
+    private IUserService userService;
+
+    /**
+     * Without parameters returns every user, with {@code after} and/or {@code limit} returns one page
+     * of users ordered by id together with the cursor of the next page.
+     */
+    @GetMapping("/all")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> getAllUsers(@RequestParam(required = false) Long after,
+                                                @RequestParam(required = false) Integer limit) {
+        Response response = (after == null && limit == null)
+                ? userService.getAllUsers()
+                : userService.getUsersPage(after, limit);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @GetMapping(value = "/all/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> userService.streamAllUsers(outputStream));
+    }
+
+    @GetMapping("/get-by-id/{userId}")
+    @PreAuthorize("hasAuthority('ADMIN') or @ownership.isCurrentUser(#userId)")
+    public ResponseEntity<Response> getUserById(@PathVariable("userId") String userId) {
+        Response response = userService.getUserById(userId);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @DeleteMapping("/delete/{userId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> deleteUser(@PathVariable("userId") String userId) {
+        Response response = userService.deleteUser(userId);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @GetMapping("/get-logged-in-profile-info")
+    public ResponseEntity<Response> getLoggedInUserProfile() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Response response = userService.getMyInfo(authentication.getName());
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @GetMapping("/get-user-bookings/{userId}")
+    @PreAuthorize("hasAuthority('ADMIN') or @ownership.isCurrentUser(#userId)")
+    public ResponseEntity<Response> getUserBookingHistory(@PathVariable("userId") String userId) {
+        Response response = userService.getUserBookingHistory(userId);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+}
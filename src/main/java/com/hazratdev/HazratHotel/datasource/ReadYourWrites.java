@@ -0,0 +1,79 @@
+package com.hazratdev.HazratHotel.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Decides which reads must see the primary even inside a read-only transaction. A user who just booked or
+ * registered reads from the primary for {@code datasource.replica.read-your-writes-ms}, which should exceed the
+ * replica lag tolerated by {@link ReplicaRoutingDataSource}, so they always see their own change. Code that has to
+ * read what was just committed, whoever the user, runs its reads through {@link #onPrimary(Supplier)}.
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final int PURGE_THRESHOLD = 100_000;
+
+    @Value("${datasource.replica.read-your-writes-ms:5000}")
+    private long windowMillis;
+
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+    private final ThreadLocal<Boolean> onPrimary = new ThreadLocal<>();
+
+    /**
+     * Sends the reads of the authenticated user to the primary for a while.
+     */
+    public void recordWrite() {
+        recordWrite(currentUser());
+    }
+
+    public void recordWrite(String username) {
+        if (username == null) return;
+        long now = System.currentTimeMillis();
+        pinnedUntil.put(username, now + windowMillis);
+        if (pinnedUntil.size() > PURGE_THRESHOLD) {
+            pinnedUntil.values().removeIf(until -> until < now);
+        }
+    }
+
+    public <T> T onPrimary(Supplier<T> reads) {
+        if (onPrimary.get() != null) return reads.get();
+        onPrimary.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            onPrimary.remove();
+        }
+    }
+
+    public void onPrimary(Runnable reads) {
+        onPrimary(() -> {
+            reads.run();
+            return null;
+        });
+    }
+
+    public boolean requiresPrimary() {
+        if (onPrimary.get() != null) return true;
+        String username = currentUser();
+        if (username == null) return false;
+        Long until = pinnedUntil.get(username);
+        if (until == null) return false;
+        if (until >= System.currentTimeMillis()) return true;
+        pinnedUntil.remove(username, until);
+        return false;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) return null;
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,193 @@
+package com.hazratdev.HazratHotel.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the replicas, in turn, and everything else to the primary: writes, reads outside
+ * a transaction and reads that {@link ReadYourWrites} keeps on the primary. The key is looked up when a connection
+ * is opened, so this must sit behind a {@link LazyConnectionDataSourceProxy}, which opens it at the first statement,
+ * once the transaction is marked read-only.
+ * <p>
+ * A replica is used only while its last lag check succeeded and found it at most {@code maxLagSeconds} behind. Each
+ * check runs the lag query on every replica and reads the lag from the {@code Seconds_Behind_Source} column of
+ * MySQL's {@code SHOW REPLICA STATUS}, or from the first column of any other query. No row or a null lag, as
+ * returned when replication is stopped, counts as unusable. A replica that fails to open a connection is dropped
+ * until its next successful check and the transaction reads from the primary instead.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private static final String[] LAG_COLUMNS = {"Seconds_Behind_Source", "Seconds_Behind_Master"};
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Map<String, Replica> replicasByName = new HashMap<>();
+    private final ReadYourWrites readYourWrites;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private ScheduledExecutorService lagChecks;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReadYourWrites readYourWrites,
+                                    String lagQuery, long maxLagSeconds) {
+        this.primary = primary;
+        this.readYourWrites = readYourWrites;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            this.replicasByName.put(name, replica);
+            targets.put(name, dataSource);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Checks every replica now and then every {@code intervalMillis} on a thread of its own, so an unreachable
+     * replica never holds up the application's scheduled tasks.
+     */
+    public synchronized void startLagChecks(long intervalMillis) {
+        if (lagChecks != null) return;
+        lagChecks = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagChecks.scheduleWithFixedDelay(this::checkReplicas, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            Long lag;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                lag = readLag(resultSet);
+            } catch (SQLException | RuntimeException e) {
+                replica.update(null, maxLagSeconds, e);
+                continue;
+            }
+            replica.update(lag, maxLagSeconds, null);
+        }
+    }
+
+    /**
+     * Lag of each replica in seconds as of its last check, -1 if the check failed or found replication stopped.
+     */
+    public Map<String, Long> getReplicaLagSeconds() {
+        Map<String, Long> lags = new LinkedHashMap<>();
+        for (Replica replica : replicas) {
+            lags.put(replica.name, replica.lagSeconds);
+        }
+        return lags;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || readYourWrites.requiresPrimary()) {
+            return PRIMARY;
+        }
+        int count = replicas.size();
+        int first = Math.floorMod(next.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((first + i) % count);
+            if (replica.usable) return replica.name;
+        }
+        return PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        Replica replica = replicasByName.get(key);
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            replica.update(null, maxLagSeconds, e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws Exception {
+        if (lagChecks != null) {
+            lagChecks.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static Long readLag(ResultSet resultSet) throws SQLException {
+        if (!resultSet.next()) return null;
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int column = 1;
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            for (String lagColumn : LAG_COLUMNS) {
+                if (lagColumn.equalsIgnoreCase(metaData.getColumnLabel(i))) column = i;
+            }
+        }
+        long lag = resultSet.getLong(column);
+        return resultSet.wasNull() ? null : lag;
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean usable;
+        private volatile long lagSeconds = -1;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private void update(Long lag, long maxLagSeconds, Exception failure) {
+            boolean wasUsable = usable;
+            lagSeconds = lag == null ? -1 : lag;
+            usable = lag != null && lag <= maxLagSeconds;
+            if (wasUsable && !usable) {
+                if (failure != null) log.warn("Replica {} is unreachable, its reads go to the primary", name, failure);
+                else log.warn("Replica {} is {} seconds behind, its reads go to the primary", name, lag == null ? "unknown" : lag);
+            } else if (!wasUsable && usable) {
+                log.info("Replica {} is {} seconds behind, serving reads", name, lag);
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.hazratdev.HazratHotel.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one row of a bulk import, {@code index} is the row's position in the request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingImportResult {
+
+    private int index;
+    private int statusCode;
+    private String message;
+    private String bookingConfirmationCode;
+}
@@ -0,0 +1,19 @@
+package com.hazratdev.HazratHotel.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * One booking of a bulk import.
+ */
+@Data
+public class BookingImportRow {
+
+    private Long roomId;
+    private Long userId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private int numOfAdults;
+    private int numOfChildren;
+}
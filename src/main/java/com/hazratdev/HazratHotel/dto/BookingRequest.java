@@ -0,0 +1,17 @@
+package com.hazratdev.HazratHotel.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Body of a booking request. The room and the guest come from the path, everything else is set by the server.
+ */
+@Data
+public class BookingRequest {
+
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private int numOfAdults;
+    private int numOfChildren;
+}
@@ -0,0 +1,14 @@
+package com.hazratdev.HazratHotel.dto;
+
+import lombok.Data;
+
+@Data
+public class LockMetricsDTO {
+
+    private int stripes;
+    private long acquisitions;
+    private long contendedAcquisitions;
+    private double contentionRatio;
+    private double averageWaitMillis;
+    private double maxWaitMillis;
+}
@@ -24,5 +24,14 @@ public class Response {
     private List<RoomDTO> roomList;
     private List<BookingDTO> bookingList;
 
+    /**
+     * Id to pass as {@code after} to fetch the next page, null on the last page.
+     */
+    private Long nextCursor;
+
+    private List<BookingImportResult> bookingImportResults;
+
+    private List<RoomTypeAvailability> availabilityCalendar;
+
 
 }
\ No newline at end of file
@@ -3,11 +3,14 @@ package com.hazratdev.HazratHotel.dto;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.hazratdev.HazratHotel.entity.Booking;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 @Data
+@NoArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class RoomDTO {
 
@@ -15,6 +18,21 @@ public class RoomDTO {
     private String roomType;
     private BigDecimal roomPrice;
     private String roomPhotoUrl;
+    /**
+     * URLs of the downscaled photo by width in pixels.
+     */
+    private Map<Integer, String> roomPhotoVariants;
     private String roomDescription;
     private List<BookingDTO> bookings ;
+
+    /**
+     * Used by the JPQL constructor expressions in RoomRepository.
+     */
+    public RoomDTO(Long id, String roomType, BigDecimal roomPrice, String roomPhotoUrl, String roomDescription) {
+        this.id = id;
+        this.roomType = roomType;
+        this.roomPrice = roomPrice;
+        this.roomPhotoUrl = roomPhotoUrl;
+        this.roomDescription = roomDescription;
+    }
 }
@@ -0,0 +1,21 @@
+package com.hazratdev.HazratHotel.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * One line of the room import progress stream: an {@code error} for a rejected row, a {@code progress}
+ * after every committed chunk and a final {@code done}.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RoomImportEvent {
+
+    private String type;
+    private Integer line;
+    private String message;
+    private Long rowsRead;
+    private Long created;
+    private Long updated;
+    private Long failed;
+}
@@ -0,0 +1,33 @@
+package com.hazratdev.HazratHotel.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.BitSet;
+
+/**
+ * Free rooms of one room type on every day of a calendar window, {@code availableRooms[0]} being its first day.
+ */
+@Data
+@NoArgsConstructor
+public class RoomTypeAvailability {
+
+    private String roomType;
+    private int totalRooms;
+    private int[] availableRooms;
+
+    public RoomTypeAvailability(String roomType, int days) {
+        this.roomType = roomType;
+        this.availableRooms = new int[days];
+    }
+
+    /**
+     * Counts one more room of this type, free on every day of the window not set in {@code bookedDays}.
+     */
+    public void addRoom(BitSet bookedDays) {
+        totalRooms++;
+        for (int day = bookedDays.nextClearBit(0); day < availableRooms.length; day = bookedDays.nextClearBit(day + 1)) {
+            availableRooms[day]++;
+        }
+    }
+}
@@ -11,7 +11,7 @@ import java.time.LocalDate;
 
 @Entity
 @Data
-@Table(name = "bookins")
+@Table(name = "bookins", uniqueConstraints = @UniqueConstraint(name = "uk_bookins_confirmation_code", columnNames = "booking_confirmation_code"))
 public class Booking {
 
     @Id
@@ -34,7 +34,7 @@ public class Booking {
 
     private String bookingConfirmationCode;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -67,7 +67,7 @@ public class Booking {
                 ", numOfChildren=" + numOfChildren +
                 ", totalNumOfGuest=" + totalNumOfGuest +
                 ", bookingConfirmationCode='" + bookingConfirmationCode + '\'' +
-                ", user=" + user +
+                ", userId=" + (user == null ? null : user.getId()) +
                 '}';
     }
 }
@@ -37,6 +37,11 @@ public class User implements UserDetails {
 
     private String role;
 
+    /**
+     * Bumped whenever the tokens already handed out to this user must stop working.
+     */
+    private int securityVersion;
+
     @OneToMany(mappedBy = "user",fetch = FetchType.LAZY,cascade = CascadeType.ALL)
     private List<Booking> bookings = new ArrayList<>();
 
@@ -0,0 +1,11 @@
+package com.hazratdev.HazratHotel.exception;
+
+/**
+ * Work was refused because the resource it needs is saturated, answered with a 503 so the client retries later.
+ */
+public class ServerBusyException extends RuntimeException{
+
+    public ServerBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,35 @@
+package com.hazratdev.HazratHotel.metrics;
+
+import com.hazratdev.HazratHotel.service.interfac.IBookingService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the per-room booking lock statistics of {@link IBookingService#getLockMetrics()}.
+ */
+@Component
+public class BookingLockMetrics implements MeterBinder {
+
+    @Autowired
+    private IBookingService bookingService;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("hotel.booking.lock.acquisitions", bookingService,
+                        service -> service.getLockMetrics().getAcquisitions())
+                .description("Room lock acquisitions by booking writes")
+                .register(registry);
+        FunctionCounter.builder("hotel.booking.lock.contended", bookingService,
+                        service -> service.getLockMetrics().getContendedAcquisitions())
+                .description("Room lock acquisitions that had to wait")
+                .register(registry);
+        Gauge.builder("hotel.booking.lock.wait.max", bookingService, service -> service.getLockMetrics().getMaxWaitMillis())
+                .baseUnit("milliseconds")
+                .description("Longest wait for a room lock since startup")
+                .register(registry);
+    }
+}
@@ -0,0 +1,15 @@
+package com.hazratdev.HazratHotel.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method that returns the JSON of a successful {@link com.hazratdev.HazratHotel.dto.Response}
+ * instead of the object, or null when there is none. {@link ServiceMetricsAspect} counts a returned body as status 200.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SerializedResponse {
+}
@@ -0,0 +1,79 @@
+package com.hazratdev.HazratHotel.metrics;
+
+import com.hazratdev.HazratHotel.dto.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Times every public method of the service implementations and counts the status codes they put into
+ * {@link Response} bodies, since the services report 400 and 500 there instead of throwing.
+ * <ul>
+ *     <li>{@code hotel.service.calls}: timer with histogram, tagged service, method, status and exception</li>
+ *     <li>{@code hotel.service.responses}: counter of returned responses, tagged service, method and status</li>
+ * </ul>
+ * Status is the {@link Response} status code, 200 for the bodies of {@link SerializedResponse} methods and
+ * {@code none} for other return types.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    static final String CALLS = "hotel.service.calls";
+    static final String RESPONSES = "hotel.service.responses";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.hazratdev.HazratHotel.service.impl.*.*(..))")
+    public Object timeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        String service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String status = "none";
+        String exception = "none";
+        try {
+            Object result = joinPoint.proceed();
+            if (result instanceof Response response) {
+                status = Integer.toString(response.getStatusCode());
+            } else if (result != null && isSerializedResponse(joinPoint)) {
+                status = "200";
+            }
+            if (!status.equals("none")) {
+                Counter.builder(RESPONSES)
+                        .tag("service", service)
+                        .tag("method", method)
+                        .tag("status", status)
+                        .register(meterRegistry)
+                        .increment();
+            }
+            return result;
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(CALLS)
+                    .tag("service", service)
+                    .tag("method", method)
+                    .tag("status", status)
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private static boolean isSerializedResponse(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> targetClass = joinPoint.getTarget() == null ? method.getDeclaringClass() : joinPoint.getTarget().getClass();
+        return AopUtils.getMostSpecificMethod(method, targetClass).isAnnotationPresent(SerializedResponse.class);
+    }
+}
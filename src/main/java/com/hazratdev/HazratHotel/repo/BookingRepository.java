@@ -2,15 +2,55 @@ package com.hazratdev.HazratHotel.repo;
 
 import com.hazratdev.HazratHotel.entity.Booking;
 import com.hazratdev.HazratHotel.entity.Room;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking,Long> {
 
     List<Booking> findByRoomId(Long roomId);
 
-    List<Booking> findByBookingConfirmationCode(String confirmationCode);
+    @EntityGraph(attributePaths = {"user", "room"})
+    Optional<Booking> findByBookingConfirmationCode(String confirmationCode);
 
     List<Booking> findByUserId(Long userId);
+
+    @Query("SELECT COUNT(bk) > 0 FROM Booking bk WHERE bk.room.id = :roomId "
+            + "AND (bk.checkInDate <= :checkOutDate) AND (bk.checkOutDate >= :checkInDate)")
+    boolean existsOverlappingBooking(Long roomId, LocalDate checkInDate, LocalDate checkOutDate);
+
+    /**
+     * Returns [id, room id, check in, check out] rows after the given booking id, used to warm the availability index in pages.
+     */
+    @Query("SELECT bk.id, bk.room.id, bk.checkInDate, bk.checkOutDate FROM Booking bk WHERE bk.id > :afterId ORDER BY bk.id")
+    List<Object[]> findBookingRangesAfter(Long afterId, Limit limit);
+
+    @Query("SELECT bk.room.id, bk.bookingConfirmationCode FROM Booking bk WHERE bk.user.id = :userId")
+    List<Object[]> findRoomIdsAndCodesByUserId(Long userId);
+
+    @Query("SELECT bk.user.id FROM Booking bk WHERE bk.id = :bookingId")
+    Optional<Long> findUserIdById(Long bookingId);
+
+    @Query("SELECT bk.checkInDate, bk.checkOutDate FROM Booking bk WHERE bk.room.id = :roomId")
+    List<Object[]> findBookingRangesByRoomId(Long roomId);
+
+    /**
+     * Returns [room id, check in, check out] of the bookings of the given rooms that overlap {@code from}..{@code to}.
+     */
+    @Query("SELECT bk.room.id, bk.checkInDate, bk.checkOutDate FROM Booking bk WHERE bk.room.id IN :roomIds "
+            + "AND (bk.checkInDate <= :to) AND (bk.checkOutDate >= :from)")
+    List<Object[]> findBookingRangesOverlapping(Collection<Long> roomIds, LocalDate from, LocalDate to);
+
+    /**
+     * Returns [room id, check in, check out] of every booking that overlaps {@code from}..{@code to}.
+     */
+    @Query("SELECT bk.room.id, bk.checkInDate, bk.checkOutDate FROM Booking bk "
+            + "WHERE (bk.checkInDate <= :to) AND (bk.checkOutDate >= :from)")
+    List<Object[]> findBookingRangesBetween(LocalDate from, LocalDate to);
 }
@@ -1,23 +1,76 @@
 package com.hazratdev.HazratHotel.repo;
 
+import com.hazratdev.HazratHotel.dto.RoomDTO;
 import com.hazratdev.HazratHotel.entity.Room;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * The read queries returning {@link RoomDTO} select the columns straight into the DTO, no Room entity is
+ * created or tracked by the persistence context.
+ */
 public interface RoomRepository extends JpaRepository<Room,Long> {
 
+    String ROOM_DTO = "new com.hazratdev.HazratHotel.dto.RoomDTO(r.id, r.roomType, r.roomPrice, r.roomPhotoUrl, r.roomDescription)";
+
     @Query("select distinct r.roomType from Room r")
     List<String> findDistinctRoomTypes();
 
-    @Query("SELECT r FROM Room r WHERE r.roomType LIKE %:roomType% AND r.id NOT IN ("
+    @Query("SELECT " + ROOM_DTO + " FROM Room r WHERE r.roomType LIKE %:roomType% AND r.id NOT IN ("
             + "SELECT bk.room.id FROM Booking bk "
-            + "WHERE (bk.checkInDate <= :checkOutDate) AND (bk.checkOutDate >= :checkInDate))")
-    List<Room> findAvailableRoomByDatesAndTypes(LocalDate checkInDate, LocalDate checkOutDate, String roomType);
+            + "WHERE (bk.checkInDate <= :checkOutDate) AND (bk.checkOutDate >= :checkInDate)) ORDER BY r.id")
+    List<RoomDTO> findAvailableRoomByDatesAndTypes(LocalDate checkInDate, LocalDate checkOutDate, String roomType);
+
+
+    @Query("SELECT " + ROOM_DTO + " FROM Room r WHERE r.id NOT IN (SELECT b.room.id FROM Booking b) ORDER BY r.id")
+    List<RoomDTO> getAvailableRooms();
+
+    @Query("SELECT " + ROOM_DTO + " FROM Room r ORDER BY r.id")
+    List<RoomDTO> findAllRoomDTOs();
+
+    @Query("SELECT " + ROOM_DTO + " FROM Room r WHERE r.id = :roomId")
+    Optional<RoomDTO> findRoomDTOById(Long roomId);
+
+    @Query("SELECT " + ROOM_DTO + " FROM Room r WHERE r.id > :afterId ORDER BY r.id")
+    List<RoomDTO> findRoomDTOsAfter(Long afterId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT " + ROOM_DTO + " FROM Room r ORDER BY r.id")
+    Stream<RoomDTO> streamAllRoomDTOs();
+
+    @Query("SELECT r.roomPhotoUrl FROM Room r WHERE r.roomPhotoUrl IS NOT NULL")
+    List<String> findAllPhotoUrls();
+
+    /**
+     * Points the room at the stored photo, unless its photo was replaced meanwhile.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Room r SET r.roomPhotoUrl = :storedUrl WHERE r.id = :roomId AND r.roomPhotoUrl = :stagedUrl")
+    int replaceRoomPhotoUrl(Long roomId, String stagedUrl, String storedUrl);
+
+    @Query("SELECT r.id, r.roomType FROM Room r")
+    List<Object[]> findAllRoomIdsAndTypes();
 
+    @Query("SELECT r.id FROM Room r WHERE r.id IN :roomIds")
+    List<Long> findExistingIds(Collection<Long> roomIds);
 
-    @Query("SELECT r FROM Room r WHERE r.id NOT IN (SELECT b.room.id FROM Booking b)")
-    List<Room> getAvailableRooms();
+    /**
+     * Loads the room with its bookings in one statement, for {@code Utils.mapRoomEntityToRoomDTOPlusBookings}.
+     */
+    @EntityGraph(attributePaths = "bookings")
+    Optional<Room> findWithBookingsById(Long roomId);
 }
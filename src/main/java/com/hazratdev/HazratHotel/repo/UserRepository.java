@@ -1,13 +1,41 @@
 package com.hazratdev.HazratHotel.repo;
 
 import com.hazratdev.HazratHotel.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User,Long> {
 
     boolean existsByEmail(String email);
 
     Optional<User> findByEmail(String email);
+
+    /**
+     * Loads the user with its bookings and their rooms in one statement, for the booking history.
+     */
+    @EntityGraph(attributePaths = {"bookings", "bookings.room"})
+    @Query("SELECT u FROM User u WHERE u.id = :userId")
+    Optional<User> findWithBookingsAndRoomsById(Long userId);
+
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :userIds")
+    List<Long> findExistingIds(Collection<Long> userIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    Stream<User> streamAllBy();
+
+    @Query("SELECT u.securityVersion FROM User u WHERE u.id = :userId")
+    Optional<Integer> findSecurityVersionById(Long userId);
 }
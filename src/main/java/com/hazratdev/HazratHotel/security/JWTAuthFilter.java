@@ -2,11 +2,13 @@ package com.hazratdev.HazratHotel.security;
 
 import com.hazratdev.HazratHotel.service.CustomUserDetailsService;
 import com.hazratdev.HazratHotel.utils.JWTUtils;
+import com.hazratdev.HazratHotel.utils.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -26,12 +28,22 @@ public class JWTAuthFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
 
+    @Autowired
+    private UserSecurityVersions userSecurityVersions;
+
+    /**
+     * In stateless mode the principal is built from the token claims instead of loading the user.
+     */
+    @Value("${security.jwt.stateless:false}")
+    private boolean stateless;
+
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwtToken;
+        final VerifiedToken verifiedToken;
         final String userEmail;
 
         if(authHeader == null || authHeader.isBlank()) {
@@ -40,10 +52,13 @@ public class JWTAuthFilter extends OncePerRequestFilter {
         }
 
         jwtToken = authHeader.substring(7);
-        userEmail = jwtUtils.extractUsername(jwtToken);
+        verifiedToken = jwtUtils.verifyToken(jwtToken);
+        userEmail = verifiedToken.getSubject();
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(userEmail);
-            if(jwtUtils.isValidToken(jwtToken,userDetails)){
+            UserDetails userDetails = stateless && verifiedToken.carriesPrincipal()
+                    ? statelessPrincipal(verifiedToken)
+                    : customUserDetailsService.loadUserByUsername(userEmail);
+            if(userDetails != null && jwtUtils.isValidToken(verifiedToken,userDetails)){
                 SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
                 UsernamePasswordAuthenticationToken token =  new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 token.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -53,4 +68,14 @@ public class JWTAuthFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Returns null when the user was deleted or their tokens were revoked since this token was issued.
+     */
+    private UserDetails statelessPrincipal(VerifiedToken verifiedToken) {
+        if (!userSecurityVersions.isCurrent(verifiedToken.getUserId(), verifiedToken.getSecurityVersion())) {
+            return null;
+        }
+        return new JWTPrincipal(verifiedToken.getUserId(), verifiedToken.getSubject(), verifiedToken.getRole());
+    }
 }
@@ -0,0 +1,43 @@
+package com.hazratdev.HazratHotel.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal built from the claims of a verified token in stateless mode, without loading the user.
+ */
+public class JWTPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final List<GrantedAuthority> authorities;
+
+    public JWTPrincipal(Long id, String email, String role) {
+        this.id = id;
+        this.email = email;
+        this.authorities = List.of(new SimpleGrantedAuthority(role));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
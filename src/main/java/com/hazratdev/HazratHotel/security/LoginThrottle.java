@@ -0,0 +1,73 @@
+package com.hazratdev.HazratHotel.security;
+
+import com.hazratdev.HazratHotel.utils.TokenBuckets;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Rate limit of {@code /auth/login} and {@code /auth/register}, checked before any password is hashed so a burst of
+ * attempts can't take the CPU away from other requests. Every attempt takes a token from the bucket of its client
+ * address and then from the bucket of its email, so a single address can't try many accounts and many addresses
+ * can't hammer a single account.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final int STRIPES = 64;
+
+    @Value("${auth.throttle.ip.burst:20}")
+    private int ipBurst;
+
+    @Value("${auth.throttle.ip.per-minute:10}")
+    private int ipPerMinute;
+
+    @Value("${auth.throttle.email.burst:5}")
+    private int emailBurst;
+
+    @Value("${auth.throttle.email.per-minute:2}")
+    private int emailPerMinute;
+
+    @Value("${auth.throttle.max-keys:100000}")
+    private int maxKeys;
+
+    private TokenBuckets ipBuckets;
+    private TokenBuckets emailBuckets;
+
+    @PostConstruct
+    void createBuckets() {
+        requirePositive("auth.throttle.ip.burst", ipBurst);
+        requirePositive("auth.throttle.ip.per-minute", ipPerMinute);
+        requirePositive("auth.throttle.email.burst", emailBurst);
+        requirePositive("auth.throttle.email.per-minute", emailPerMinute);
+        ipBuckets = new TokenBuckets(ipBurst, Duration.ofMinutes(1).dividedBy(ipPerMinute), maxKeys, STRIPES);
+        emailBuckets = new TokenBuckets(emailBurst, Duration.ofMinutes(1).dividedBy(emailPerMinute), maxKeys, STRIPES);
+    }
+
+    /**
+     * Takes a token for the attempt. Returns 0 when it may go ahead, otherwise the seconds to wait before retrying.
+     */
+    public long tryAttempt(String clientAddress, String email) {
+        long waitNanos = ipBuckets.tryTake(clientAddress);
+        if (waitNanos == 0 && email != null && !email.isBlank()) {
+            waitNanos = emailBuckets.tryTake(email.trim().toLowerCase(Locale.ROOT));
+        }
+        return waitNanos == 0 ? 0 : Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000);
+    }
+
+    private static void requirePositive(String property, int value) {
+        if (value < 1) {
+            throw new IllegalStateException(property + " must be at least 1, was " + value);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.throttle.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        ipBuckets.evictIdle();
+        emailBuckets.evictIdle();
+    }
+}
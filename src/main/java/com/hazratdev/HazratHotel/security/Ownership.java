@@ -0,0 +1,53 @@
+package com.hazratdev.HazratHotel.security;
+
+import com.hazratdev.HazratHotel.entity.User;
+import com.hazratdev.HazratHotel.repo.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Checks used by {@code @PreAuthorize} expressions, as {@code @ownership}, to let users act only on their own
+ * account and bookings.
+ */
+@Component("ownership")
+public class Ownership {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    public boolean isCurrentUser(Long userId) {
+        return userId != null && userId.equals(currentUserId());
+    }
+
+    /**
+     * For path variables taken as text, a value that isn't a number is never the current user.
+     */
+    public boolean isCurrentUser(String userId) {
+        try {
+            return userId != null && isCurrentUser(Long.valueOf(userId));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * False as well when the booking doesn't exist, so ids of other users' bookings can't be probed.
+     */
+    public boolean ownsBooking(Long bookingId) {
+        Long userId = currentUserId();
+        return bookingId != null && userId != null
+                && bookingRepository.findUserIdById(bookingId).map(owner -> Objects.equals(owner, userId)).orElse(false);
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Object principal = authentication == null ? null : authentication.getPrincipal();
+        if (principal instanceof User user) return user.getId();
+        if (principal instanceof JWTPrincipal jwtPrincipal) return jwtPrincipal.getId();
+        return null;
+    }
+}
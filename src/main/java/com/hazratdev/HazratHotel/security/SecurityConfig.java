@@ -2,8 +2,10 @@ package com.hazratdev.HazratHotel.security;
 
 import com.hazratdev.HazratHotel.service.CustomUserDetailsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -19,23 +21,35 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    private static final int BCRYPT_STRENGTH = 10;
+
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
 
     @Autowired
     private JWTAuthFilter jwtAuthFilter;
 
+    @Value("${security.password-hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${security.password-hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
         httpSecurity.csrf(AbstractHttpConfigurer :: disable)
                 .cors(Customizer.withDefaults())
                 .authorizeHttpRequests(request -> request
-                        .requestMatchers("/auth/**","/room/**","/bookings/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/room/import").hasAuthority("ADMIN")
+                        .requestMatchers("/auth/**","/room/**","/bookings/**","/images/**","/actuator/health","/actuator/prometheus").permitAll()
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(manager -> manager.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -53,9 +67,21 @@ public class SecurityConfig {
         return daoAuthenticationProvider;
     }
 
+    /**
+     * Salts come from a DRBG rather than the platform default, whose NativePRNG reads /dev/urandom while holding
+     * a monitor and would pin the carrier of a virtual thread on every register and password change. Hashing runs
+     * on {@code security.password-hashing.threads} threads, one per CPU when 0.
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        BCryptPasswordEncoder bcrypt;
+        try {
+            bcrypt = new BCryptPasswordEncoder(BCRYPT_STRENGTH, SecureRandom.getInstance("DRBG"));
+        } catch (NoSuchAlgorithmException e) {
+            bcrypt = new BCryptPasswordEncoder(BCRYPT_STRENGTH);
+        }
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(bcrypt, threads, hashingQueueCapacity);
     }
 
     @Bean
@@ -0,0 +1,58 @@
+package com.hazratdev.HazratHotel.security;
+
+import com.hazratdev.HazratHotel.repo.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current security version of each user, checked against the version inside a stateless token.
+ * A user's version is read from the database the first time it is needed and then again only after
+ * {@code security.jwt.version-cache-ttl-seconds}, so other instances see revocations within that delay.
+ * Deleting a user revokes its tokens on this instance immediately.
+ * <p>
+ * Nothing changes a user's role or password yet, so deletion is the only revocation. Whatever adds such a change
+ * must increment {@code users.security_version} and drop the cached entry, otherwise a stateless token keeps the
+ * old role until it expires.
+ */
+@Component
+public class UserSecurityVersions {
+
+    private static final int DELETED = -1;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${security.jwt.version-cache-ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private final Map<Long, CachedVersion> versions = new ConcurrentHashMap<>();
+
+    public boolean isCurrent(Long userId, int securityVersion) {
+        long now = System.currentTimeMillis();
+        CachedVersion cached = versions.get(userId);
+        if (cached == null || cached.loadedAtMillis + ttlSeconds * 1000 < now) {
+            cached = new CachedVersion(userRepository.findSecurityVersionById(userId).orElse(DELETED), now);
+            versions.put(userId, cached);
+        }
+        return cached.version == securityVersion;
+    }
+
+    public void markDeleted(Long userId) {
+        versions.put(userId, new CachedVersion(DELETED, Long.MAX_VALUE / 2));
+    }
+
+    private static final class CachedVersion {
+
+        private final int version;
+        private final long loadedAtMillis;
+
+        private CachedVersion(int version, long loadedAtMillis) {
+            this.version = version;
+            this.loadedAtMillis = loadedAtMillis;
+        }
+    }
+}
@@ -1,38 +1,148 @@
 package com.hazratdev.HazratHotel.service;
 
+import com.hazratdev.HazratHotel.service.storage.ImageStorage;
+import com.hazratdev.HazratHotel.service.storage.PendingImage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class AwsS3Service {
 
-    @Value("${file.storage.location}")
-    private String storageDirectory;
+    private static final Logger log = LoggerFactory.getLogger(AwsS3Service.class);
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    @Value("${file.storage.threads:2}")
+    private int storageThreads;
+
+    @Value("${file.storage.queue-capacity:200}")
+    private int storageQueueCapacity;
+
+    @Autowired
+    private Environment environment;
+
+    private Executor imageStorageExecutor;
+
+    /**
+     * Hashes and files staged uploads off the request thread. When the queue is full the uploading
+     * request does the work itself, which slows uploads down instead of losing them. With virtual
+     * threads enabled every upload gets its own virtual thread instead, and uploads past the queue
+     * capacity wait for a free slot.
+     */
+    @PostConstruct
+    void startExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("image-storage-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(storageQueueCapacity);
+            executor.setTaskTerminationTimeout(30_000);
+            imageStorageExecutor = executor;
+        } else {
+            imageStorageExecutor = new ThreadPoolExecutor(storageThreads, storageThreads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(storageQueueCapacity), new CustomizableThreadFactory("image-storage-"),
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+    }
+
+    @PreDestroy
+    void stopExecutor() throws InterruptedException {
+        if (imageStorageExecutor instanceof ThreadPoolExecutor pool) {
+            pool.shutdown();
+            pool.awaitTermination(30, TimeUnit.SECONDS);
+        } else if (imageStorageExecutor instanceof SimpleAsyncTaskExecutor executor) {
+            executor.close();
+        }
+    }
 
     public String saveImageToS3(MultipartFile photo) {
-        File directory = new File(storageDirectory);
-        if (!directory.exists()) {
-            directory.mkdirs();
+        try (InputStream content = photo.getInputStream()) {
+            return imageStorage.store(content, extensionOf(photo.getOriginalFilename()));
+
+        } catch (IOException e) {
+            log.error("Unable to store image {}", photo.getOriginalFilename(), e);
+            throw new RuntimeException("Unable to save image to local storage: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stores an image that doesn't come from an upload, such as a photo of a room import archive, on the calling thread.
+     */
+    public String saveImage(InputStream content, String filename) {
+        try {
+            return imageStorage.store(content, extensionOf(filename));
+
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to save image to local storage: " + e.getMessage());
         }
+    }
 
+    /**
+     * Saves a copy of the upload in the staging directory and stores it in the background, so the request
+     * only pays for moving the upload. Rooms can point at the staged location until the image is stored.
+     */
+    public PendingImage stageImage(MultipartFile photo) {
         try {
-            String fileName = System.currentTimeMillis() + "_" + photo.getOriginalFilename();
-            Path filePath = Path.of(storageDirectory, fileName);
+            String extension = extensionOf(photo.getOriginalFilename());
+            Path staged = imageStorage.stagingDirectory().resolve(UUID.randomUUID() + "." + extension);
+            photo.transferTo(staged);
 
-            Files.copy(photo.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            CompletableFuture<String> stored = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return imageStorage.store(staged, extension);
+                } catch (IOException e) {
+                    throw new RuntimeException("Unable to store staged image " + staged + ": " + e.getMessage(), e);
+                }
+            }, imageStorageExecutor);
+            stored.exceptionally(e -> {
+                log.error("Storing staged image failed, it stays at {}", staged, e);
+                return null;
+            });
 
-            return filePath.toAbsolutePath().toString();
+            return new PendingImage(staged.toString(), stored, () -> {
+                if (!stored.isCompletedExceptionally()) {
+                    try {
+                        Files.deleteIfExists(staged);
+                    } catch (IOException e) {
+                        log.warn("Unable to delete staged image {}", staged, e);
+                    }
+                }
+            });
 
         } catch (IOException e) {
-            e.printStackTrace();
+            log.error("Unable to stage image {}", photo.getOriginalFilename(), e);
             throw new RuntimeException("Unable to save image to local storage: " + e.getMessage());
         }
     }
+
+    private static String extensionOf(String filename) {
+        String extension = StringUtils.getFilenameExtension(filename);
+        if (extension == null || !extension.matches("[A-Za-z0-9]{1,5}")) {
+            return "img";
+        }
+        return extension.toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,106 @@
+package com.hazratdev.HazratHotel.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Booking confirmation codes that are unique without asking the database. A code packs 41 bits of milliseconds
+ * since 2024, a 10 bit node id and a 12 bit sequence into 13 Crockford base32 characters, followed by a Luhn mod 32
+ * check character. When more than 4096 codes are taken within one millisecond the sequence borrows the next
+ * millisecond, so codes of one node only ever increase. Every instance writing bookings needs its own
+ * {@code booking.confirmation-code.node-id}.
+ */
+@Component
+public class ConfirmationCodeGenerator {
+
+    public static final int CODE_LENGTH = 14;
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final long EPOCH_MILLIS = 1_704_067_200_000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final Pattern LEGACY_CODE = Pattern.compile("[A-Z0-9]{1,10}");
+
+    @Value("${booking.confirmation-code.node-id:0}")
+    private int nodeId;
+
+    /**
+     * Milliseconds since the epoch shifted left by {@link #SEQUENCE_BITS}, plus the sequence, of the last code.
+     */
+    private final AtomicLong lastStamp = new AtomicLong();
+
+    @PostConstruct
+    void checkNodeId() {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalStateException("booking.confirmation-code.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+    }
+
+    public String next() {
+        long floor = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long stamp = lastStamp.accumulateAndGet(floor, (last, now) -> Math.max(last + 1, now));
+        long millis = stamp >>> SEQUENCE_BITS;
+        long sequence = stamp & ((1 << SEQUENCE_BITS) - 1);
+        long value = (millis << (NODE_BITS + SEQUENCE_BITS)) | ((long) nodeId << SEQUENCE_BITS) | sequence;
+
+        char[] code = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 2; i >= 0; i--) {
+            code[i] = ALPHABET.charAt((int) (value & 31));
+            value >>>= 5;
+        }
+        code[CODE_LENGTH - 1] = ALPHABET.charAt(checkDigit(code, CODE_LENGTH - 1));
+        return new String(code);
+    }
+
+    /**
+     * Returns the value to look a booking up by, or null if {@code code} can't be a confirmation code, in which case
+     * no query is needed. Generated codes are read leniently the Crockford way: any case, hyphens and spaces ignored,
+     * I and L read as 1 and O as 0, and they must carry a valid check character. Shorter codes given out before
+     * these are looked up as they are, only upper cased.
+     */
+    public static String lookupKey(String code) {
+        if (code == null) return null;
+        String upper = code.strip().toUpperCase(Locale.ROOT);
+        if (LEGACY_CODE.matcher(upper).matches()) {
+            return upper;
+        }
+        char[] normalized = new char[CODE_LENGTH];
+        int length = 0;
+        for (int i = 0; i < upper.length(); i++) {
+            char c = upper.charAt(i);
+            if (c == '-' || c == ' ') continue;
+            if (length == CODE_LENGTH) return null;
+            c = switch (c) {
+                case 'I', 'L' -> '1';
+                case 'O' -> '0';
+                default -> c;
+            };
+            if (ALPHABET.indexOf(c) < 0) return null;
+            normalized[length++] = c;
+        }
+        if (length != CODE_LENGTH) return null;
+        if (ALPHABET.charAt(checkDigit(normalized, CODE_LENGTH - 1)) != normalized[CODE_LENGTH - 1]) return null;
+        return new String(normalized);
+    }
+
+    /**
+     * Luhn mod 32 check digit of the first {@code length} characters, which catches every single wrong character
+     * and almost every swap of two neighbouring ones.
+     */
+    private static int checkDigit(char[] code, int length) {
+        int factor = 2;
+        int sum = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            int addend = factor * ALPHABET.indexOf(code[i]);
+            factor = factor == 2 ? 1 : 2;
+            sum += addend / 32 + addend % 32;
+        }
+        return (32 - sum % 32) % 32;
+    }
+}
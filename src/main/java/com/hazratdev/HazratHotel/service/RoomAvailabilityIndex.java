@@ -0,0 +1,241 @@
+package com.hazratdev.HazratHotel.service;
+
+import com.hazratdev.HazratHotel.datasource.ReadYourWrites;
+import com.hazratdev.HazratHotel.dto.RoomTypeAvailability;
+import com.hazratdev.HazratHotel.repo.BookingRepository;
+import com.hazratdev.HazratHotel.repo.RoomRepository;
+import com.hazratdev.HazratHotel.utils.DayBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory occupancy index answering date range availability searches without hitting the database.
+ * Every room keeps a {@link DayBitmap} of its booked days, rooms are grouped by room type.
+ * The index is warmed from the booking table after startup, until then {@link #isReady()} is false
+ * and callers are expected to use the JPQL query instead.
+ */
+@Component
+public class RoomAvailabilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomAvailabilityIndex.class);
+    private static final int WARM_UP_PAGE_SIZE = 10_000;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Value("${availability.index.enabled:true}")
+    private boolean enabled;
+
+    private final Map<Long, RoomSlot> rooms = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> roomIdsByType = new ConcurrentHashMap<>();
+    private final Set<Long> staleRooms = ConcurrentHashMap.newKeySet();
+    private volatile boolean warming;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        if (!enabled) return;
+        Thread warmer = new Thread(this::rebuild, "availability-index-warm-up");
+        warmer.setDaemon(true);
+        warmer.start();
+    }
+
+    /**
+     * Loads every room and booking range into the index from the primary, dropping what was indexed before.
+     * Bookings recorded while this runs are kept, rooms reindexed while this runs are reindexed again once
+     * loading is done.
+     */
+    public synchronized void rebuild() {
+        ready = false;
+        warming = true;
+        rooms.clear();
+        roomIdsByType.clear();
+        long started = System.currentTimeMillis();
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readYourWrites.onPrimary(() -> readOnly.executeWithoutResult(status -> {
+                for (Object[] row : roomRepository.findAllRoomIdsAndTypes()) {
+                    addRoom((Long) row[0], (String) row[1]);
+                }
+            }));
+            long afterId = 0;
+            int loaded = 0;
+            List<Object[]> page;
+            do {
+                long pageAfter = afterId;
+                page = readYourWrites.onPrimary(() -> readOnly.execute(status -> bookingRepository.findBookingRangesAfter(pageAfter, Limit.of(WARM_UP_PAGE_SIZE))));
+                for (Object[] row : page) {
+                    afterId = (Long) row[0];
+                    recordBooking((Long) row[1], (LocalDate) row[2], (LocalDate) row[3]);
+                }
+                loaded += page.size();
+            } while (page.size() == WARM_UP_PAGE_SIZE);
+
+            warming = false;
+            for (Long roomId : List.copyOf(staleRooms)) {
+                staleRooms.remove(roomId);
+                reindexRoom(roomId);
+            }
+            ready = true;
+            log.info("Availability index warmed with {} rooms and {} bookings in {} ms", rooms.size(), loaded, System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Availability index warm up failed, searches stay on the database", e);
+        } finally {
+            warming = false;
+        }
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Returns the ids, in ascending order, of rooms whose type contains {@code roomType} (ignoring case, like the
+     * JPQL {@code LIKE}) and that have no booking overlapping {@code checkInDate}..{@code checkOutDate}.
+     */
+    public List<Long> findAvailableRoomIds(LocalDate checkInDate, LocalDate checkOutDate, String roomType) {
+        String needle = roomType.toLowerCase(Locale.ROOT);
+        List<Long> available = new ArrayList<>();
+        for (Map.Entry<String, Set<Long>> entry : roomIdsByType.entrySet()) {
+            if (!entry.getKey().contains(needle)) continue;
+            for (Long roomId : entry.getValue()) {
+                RoomSlot slot = rooms.get(roomId);
+                if (slot != null && slot.isFree(checkInDate, checkOutDate)) {
+                    available.add(roomId);
+                }
+            }
+        }
+        Collections.sort(available);
+        return available;
+    }
+
+    /**
+     * Returns true if the room has no booking overlapping {@code checkInDate}..{@code checkOutDate}.
+     */
+    public boolean isAvailable(Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        RoomSlot slot = rooms.get(roomId);
+        return slot == null || slot.isFree(checkInDate, checkOutDate);
+    }
+
+    /**
+     * Returns, for each room type, how many of its rooms are free on every day of the {@code days} long window
+     * starting at {@code start}, ordered by room type. A room counts as free on a day if a search for that single
+     * day would return it.
+     */
+    public List<RoomTypeAvailability> availabilityCalendar(LocalDate start, int days) {
+        Map<String, RoomTypeAvailability> byType = new TreeMap<>();
+        for (RoomSlot slot : rooms.values()) {
+            String roomType;
+            BitSet bookedDays;
+            synchronized (slot) {
+                roomType = slot.roomType;
+                if (roomType == null) continue;
+                bookedDays = slot.occupancy.window(start, days);
+            }
+            byType.computeIfAbsent(roomType, type -> new RoomTypeAvailability(type, days)).addRoom(bookedDays);
+        }
+        return new ArrayList<>(byType.values());
+    }
+
+    public void addRoom(Long roomId, String roomType) {
+        RoomSlot slot = rooms.computeIfAbsent(roomId, id -> new RoomSlot());
+        synchronized (slot) {
+            String oldKey = slot.typeKey;
+            String newKey = roomType == null ? null : roomType.toLowerCase(Locale.ROOT);
+            slot.roomType = roomType;
+            if (Objects.equals(newKey, oldKey)) return;
+            if (oldKey != null) {
+                roomIdsByType.getOrDefault(oldKey, Collections.emptySet()).remove(roomId);
+            }
+            if (newKey != null) {
+                roomIdsByType.computeIfAbsent(newKey, key -> ConcurrentHashMap.newKeySet()).add(roomId);
+            }
+            slot.typeKey = newKey;
+        }
+    }
+
+    public void updateRoom(Long roomId, String roomType) {
+        addRoom(roomId, roomType);
+    }
+
+    public void removeRoom(Long roomId) {
+        RoomSlot slot = rooms.remove(roomId);
+        if (slot != null && slot.typeKey != null) {
+            roomIdsByType.getOrDefault(slot.typeKey, Collections.emptySet()).remove(roomId);
+        }
+    }
+
+    /**
+     * Marks the room as occupied from check in to check out. Called once the booking is committed.
+     */
+    public void recordBooking(Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        if (roomId == null || checkInDate == null || checkOutDate == null) return;
+        RoomSlot slot = rooms.computeIfAbsent(roomId, id -> new RoomSlot());
+        synchronized (slot) {
+            slot.occupancy.set(checkInDate, checkOutDate);
+        }
+    }
+
+    /**
+     * Reloads the occupancy of one room from the database, used when a booking is cancelled since
+     * bits shared with another booking cannot simply be cleared. Callers hold the room's booking lock,
+     * so the ranges can be read before taking the slot monitor, which is never held across a query.
+     */
+    public void reindexRoom(Long roomId) {
+        if (warming) {
+            staleRooms.add(roomId);
+        }
+        RoomSlot slot = rooms.get(roomId);
+        if (slot == null) return;
+        List<Object[]> ranges = bookingRepository.findBookingRangesByRoomId(roomId);
+        synchronized (slot) {
+            slot.occupancy.clear();
+            for (Object[] range : ranges) {
+                if (range[0] != null && range[1] != null) {
+                    slot.occupancy.set((LocalDate) range[0], (LocalDate) range[1]);
+                }
+            }
+        }
+    }
+
+    private static final class RoomSlot {
+
+        private String typeKey;
+        private String roomType;
+        private final DayBitmap occupancy = new DayBitmap();
+
+        synchronized boolean isFree(LocalDate checkInDate, LocalDate checkOutDate) {
+            return !occupancy.intersects(checkInDate, checkOutDate);
+        }
+    }
+}
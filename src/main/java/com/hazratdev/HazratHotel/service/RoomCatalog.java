@@ -0,0 +1,267 @@
+package com.hazratdev.HazratHotel.service;
+
+import com.hazratdev.HazratHotel.datasource.ReadYourWrites;
+import com.hazratdev.HazratHotel.dto.RoomDTO;
+import com.hazratdev.HazratHotel.repo.RoomRepository;
+import com.hazratdev.HazratHotel.service.storage.ImageVariantCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Immutable in-memory view of the room catalog, all rooms in id order and the distinct room types, serving the
+ * listing endpoints without queries. Readers take {@link #current()} without locking. Writers of a single room call
+ * {@link #refreshRoomAfterCommit(Long)}, which reloads that room once their transaction has committed and swaps in a
+ * copy of the view with it replaced, writers of many rooms call {@link #refreshAfterCommit()}, which rebuilds the view
+ * from the database. Changes made by other instances are picked up by a refresh every
+ * {@code room.catalog.refresh-interval-ms}.
+ * <p>
+ * Every view carries a version derived from its content, the sum of a hash of each room, together with the time of
+ * the last change. Instances serving the same rooms agree on the version, before and after a restart.
+ */
+@Component
+public class RoomCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomCatalog.class);
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ImageVariantCache imageVariantCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    private volatile Snapshot current;
+
+    /**
+     * One version of the catalog. The lists and the DTOs in them are shared by every request reading this
+     * version and must not be modified.
+     */
+    public static final class Snapshot {
+
+        private final long version;
+        private final Instant lastModified;
+        private final List<RoomDTO> rooms;
+        private final Map<Long, RoomDTO> roomsById;
+        private final List<String> roomTypes;
+        private final Map<String, byte[]> serializedViews = new ConcurrentHashMap<>();
+
+        private Snapshot(long version, Instant lastModified, List<RoomDTO> rooms) {
+            this.version = version;
+            this.lastModified = lastModified;
+            this.rooms = List.copyOf(rooms);
+            Map<Long, RoomDTO> byId = new HashMap<>();
+            Set<String> types = new LinkedHashSet<>();
+            for (RoomDTO room : rooms) {
+                byId.put(room.getId(), room);
+                if (room.getRoomType() != null) types.add(room.getRoomType());
+            }
+            this.roomsById = Map.copyOf(byId);
+            this.roomTypes = List.copyOf(types);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public Instant getLastModified() {
+            return lastModified;
+        }
+
+        public List<RoomDTO> getRooms() {
+            return rooms;
+        }
+
+        public Optional<RoomDTO> getRoom(Long roomId) {
+            return Optional.ofNullable(roomId == null ? null : roomsById.get(roomId));
+        }
+
+        /**
+         * Up to {@code limit} rooms with an id greater than {@code afterId}, in id order.
+         */
+        public List<RoomDTO> getRoomsAfter(long afterId, int limit) {
+            int low = 0;
+            int high = rooms.size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (rooms.get(middle).getId() <= afterId) low = middle + 1;
+                else high = middle;
+            }
+            return rooms.subList(low, Math.min(low + limit, rooms.size()));
+        }
+
+        /**
+         * Distinct room types in the order their first room was created.
+         */
+        public List<String> getRoomTypes() {
+            return roomTypes;
+        }
+
+        /**
+         * Returns the JSON of one view of this version, serialized by the first request asking for it and reused
+         * by every later one until a new version replaces this snapshot.
+         */
+        public byte[] serialized(String view, Function<Snapshot, byte[]> serializer) {
+            return serializedViews.computeIfAbsent(view, key -> serializer.apply(this));
+        }
+    }
+
+    public Snapshot current() {
+        Snapshot snapshot = current;
+        return snapshot != null ? snapshot : refresh();
+    }
+
+    /**
+     * Reloads the catalog and swaps in a new version if anything changed. Always reads the primary, so a lagging
+     * replica never swaps an older view back in.
+     */
+    public synchronized Snapshot refresh() {
+        List<RoomDTO> rooms = new ArrayList<>(readOnPrimary(() -> roomRepository.findAllRoomDTOs()));
+        long version = 0;
+        for (RoomDTO room : rooms) {
+            room.setRoomPhotoVariants(imageVariantCache.variantUrls(room.getRoomPhotoUrl()));
+            version += hash(room);
+        }
+
+        Snapshot previous = current;
+        if (previous != null && previous.rooms.equals(rooms)) {
+            return previous;
+        }
+        Snapshot next = new Snapshot(version, Instant.now(), rooms);
+        current = next;
+        return next;
+    }
+
+    /**
+     * Reloads one room from the primary and swaps in a new version with that room replaced, added or, when it no
+     * longer exists, removed. Other rooms are carried over from the current view as they are.
+     */
+    public synchronized Snapshot refreshRoom(Long roomId) {
+        Snapshot previous = current;
+        if (previous == null) {
+            return refresh();
+        }
+        RoomDTO room = readOnPrimary(() -> roomRepository.findRoomDTOById(roomId)).orElse(null);
+        if (room != null) {
+            room.setRoomPhotoVariants(imageVariantCache.variantUrls(room.getRoomPhotoUrl()));
+        }
+        RoomDTO replaced = previous.roomsById.get(roomId);
+        if (Objects.equals(replaced, room)) {
+            return previous;
+        }
+
+        List<RoomDTO> rooms = new ArrayList<>(previous.rooms.size() + 1);
+        boolean placed = room == null;
+        for (RoomDTO existing : previous.rooms) {
+            if (!placed && existing.getId() > roomId) {
+                rooms.add(room);
+                placed = true;
+            }
+            if (!existing.getId().equals(roomId)) rooms.add(existing);
+        }
+        if (!placed) rooms.add(room);
+        long version = previous.version - (replaced == null ? 0 : hash(replaced)) + (room == null ? 0 : hash(room));
+        Snapshot next = new Snapshot(version, Instant.now(), rooms);
+        current = next;
+        return next;
+    }
+
+    /**
+     * Refreshes the catalog once the current transaction commits, or right away outside of one. A failed refresh
+     * drops the current view, so the next reader loads the catalog again instead of seeing the old one.
+     */
+    public void refreshAfterCommit() {
+        afterCommit(this::refresh);
+    }
+
+    /**
+     * Same as {@link #refreshAfterCommit()} for a write that changed, added or deleted only the given room.
+     */
+    public void refreshRoomAfterCommit(Long roomId) {
+        afterCommit(() -> refreshRoom(roomId));
+    }
+
+    @Scheduled(initialDelayString = "${room.catalog.refresh-interval-ms:300000}", fixedDelayString = "${room.catalog.refresh-interval-ms:300000}")
+    public void refreshPeriodically() {
+        if (current != null) {
+            refreshOrInvalidate(this::refresh);
+        }
+    }
+
+    private void afterCommit(Runnable refresh) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshOrInvalidate(refresh);
+                }
+            });
+        } else {
+            refreshOrInvalidate(refresh);
+        }
+    }
+
+    private void refreshOrInvalidate(Runnable refresh) {
+        try {
+            refresh.run();
+        } catch (RuntimeException e) {
+            log.warn("Room catalog refresh failed, it is reloaded on the next read", e);
+            current = null;
+        }
+    }
+
+    private <T> T readOnPrimary(Supplier<T> reads) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readYourWrites.onPrimary(() -> readOnly.execute(status -> reads.get()));
+    }
+
+    /**
+     * The first 64 bits of the SHA-256 of what a room shows, the same on every instance and across restarts.
+     */
+    private static long hash(RoomDTO room) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        Map<Integer, String> variants = room.getRoomPhotoVariants() == null ? null : new TreeMap<>(room.getRoomPhotoVariants());
+        for (Object field : new Object[]{room.getId(), room.getRoomType(), room.getRoomPrice(), room.getRoomPhotoUrl(),
+                room.getRoomDescription(), variants}) {
+            digest.update((byte) (field == null ? 0 : 1));
+            if (field != null) digest.update(field.toString().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+}
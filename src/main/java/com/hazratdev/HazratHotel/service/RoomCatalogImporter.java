@@ -0,0 +1,425 @@
+package com.hazratdev.HazratHotel.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazratdev.HazratHotel.dto.RoomImportEvent;
+import com.hazratdev.HazratHotel.exception.OurException;
+import com.hazratdev.HazratHotel.repo.RoomRepository;
+import com.hazratdev.HazratHotel.utils.CsvReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Imports rooms from a CSV file with a header line or from NDJSON with one object per line. Both name the fields
+ * {@code id}, {@code roomType}, {@code roomPrice}, {@code roomDescription} and {@code photo}, ignoring case.
+ * A row with an id updates the fields it has of that room, a row without one creates a room and needs a type
+ * and a price. A photo names an entry of the zip archive sent along, which is stored like an upload.
+ * <p>
+ * The input is read one row at a time and written in chunks of {@value #CHUNK_SIZE} rows, each chunk in its own
+ * transaction through JDBC batches, so a failing chunk doesn't undo the ones before it. Rejected rows and the
+ * progress after every chunk are written to the output as NDJSON while the import runs.
+ */
+@Component
+public class RoomCatalogImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomCatalogImporter.class);
+
+    static final int CHUNK_SIZE = 500;
+    private static final String INSERT_ROOM = "INSERT INTO rooms (room_type, room_price, room_description, room_photo_url) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_ROOM = "UPDATE rooms SET room_type = COALESCE(?, room_type), room_price = COALESCE(?, room_price), "
+            + "room_description = COALESCE(?, room_description), room_photo_url = COALESCE(?, room_photo_url) WHERE id = ?";
+
+    public enum Format {
+        CSV, NDJSON;
+
+        /**
+         * Picks the format from the file name extension, null for anything but csv, ndjson and jsonl.
+         */
+        public static Format of(String filename) {
+            String extension = StringUtils.getFilenameExtension(filename);
+            if (extension == null) return null;
+            return switch (extension.toLowerCase(Locale.ROOT)) {
+                case "csv" -> CSV;
+                case "ndjson", "jsonl" -> NDJSON;
+                default -> null;
+            };
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private AwsS3Service awsS3Service;
+
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private record Row(int line, Long id, String roomType, BigDecimal roomPrice, String roomDescription, String photo) {
+    }
+
+    /**
+     * The rows of one input as maps from lower case field name to value, null once the input is exhausted.
+     */
+    private interface RowSource {
+
+        Map<String, String> next() throws IOException;
+
+        int line();
+    }
+
+    private static final class Counts {
+
+        private long rowsRead;
+        private long created;
+        private long updated;
+        private long failed;
+        private int line;
+    }
+
+    /**
+     * Imports every row of {@code rooms}, taking photos from {@code photoArchive} if given, and writes the
+     * progress to {@code progress}. Problems with single rows are reported and skipped, not thrown.
+     */
+    public void importRooms(InputStream rooms, Format format, Path photoArchive, OutputStream progress) throws IOException {
+        Counts counts = new Counts();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(rooms, StandardCharsets.UTF_8));
+        ZipFile photos = null;
+        try {
+            if (photoArchive != null) {
+                try {
+                    photos = new ZipFile(photoArchive.toFile());
+                } catch (IOException e) {
+                    write(progress, error(0, "Photo archive is not a valid zip file"));
+                    write(progress, summary("done", counts));
+                    return;
+                }
+            }
+
+            RowSource source = format == Format.CSV ? csvRows(reader) : ndjsonRows(reader);
+            Map<String, String> storedPhotos = new HashMap<>();
+            List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+            while (true) {
+                Map<String, String> fields;
+                try {
+                    fields = source.next();
+                } catch (OurException e) {
+                    counts.rowsRead++;
+                    counts.failed++;
+                    write(progress, error(source.line(), e.getMessage()));
+                    continue;
+                } catch (IOException e) {
+                    write(progress, error(source.line(), "Unable to read the rest of the file: " + e.getMessage()));
+                    break;
+                }
+                if (fields == null) break;
+
+                counts.rowsRead++;
+                counts.line = source.line();
+                try {
+                    chunk.add(toRow(source.line(), fields, photos != null));
+                } catch (OurException e) {
+                    counts.failed++;
+                    write(progress, error(source.line(), e.getMessage()));
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(chunk, photos, storedPhotos, counts, progress);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, photos, storedPhotos, counts, progress);
+            }
+            write(progress, summary("done", counts));
+        } finally {
+            if (photos != null) {
+                photos.close();
+            }
+        }
+    }
+
+    private RowSource csvRows(BufferedReader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        List<String> names = new ArrayList<>();
+        if (header != null) {
+            for (String name : header) {
+                names.add(name.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return new RowSource() {
+            @Override
+            public Map<String, String> next() throws IOException {
+                if (header == null) return null;
+                List<String> record = csv.readRecord();
+                if (record == null) return null;
+                if (record.size() != names.size()) {
+                    throw new OurException("Expected " + names.size() + " fields but found " + record.size());
+                }
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < names.size(); i++) {
+                    fields.put(names.get(i), record.get(i));
+                }
+                return fields;
+            }
+
+            @Override
+            public int line() {
+                return csv.getRecordLine();
+            }
+        };
+    }
+
+    private RowSource ndjsonRows(BufferedReader reader) {
+        return new RowSource() {
+            private int line;
+
+            @Override
+            public Map<String, String> next() throws IOException {
+                String text;
+                do {
+                    text = reader.readLine();
+                    line++;
+                    if (text == null) return null;
+                } while (text.isBlank());
+
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(text);
+                } catch (IOException e) {
+                    throw new OurException("Invalid JSON");
+                }
+                if (!node.isObject()) {
+                    throw new OurException("Expected a JSON object");
+                }
+                Map<String, String> fields = new HashMap<>();
+                Iterator<Map.Entry<String, JsonNode>> entries = node.fields();
+                while (entries.hasNext()) {
+                    Map.Entry<String, JsonNode> entry = entries.next();
+                    if (!entry.getValue().isNull()) {
+                        fields.put(entry.getKey().toLowerCase(Locale.ROOT), entry.getValue().asText());
+                    }
+                }
+                return fields;
+            }
+
+            @Override
+            public int line() {
+                return line;
+            }
+        };
+    }
+
+    private static Row toRow(int line, Map<String, String> fields, boolean hasPhotos) {
+        Long id = null;
+        String idText = text(fields.get("id"));
+        if (idText != null) {
+            try {
+                id = Long.valueOf(idText);
+            } catch (NumberFormatException e) {
+                throw new OurException("Invalid room id " + idText);
+            }
+        }
+        BigDecimal roomPrice = null;
+        String priceText = text(fields.get("roomprice"));
+        if (priceText != null) {
+            try {
+                roomPrice = new BigDecimal(priceText);
+            } catch (NumberFormatException e) {
+                throw new OurException("Invalid room price " + priceText);
+            }
+            if (roomPrice.signum() < 0) {
+                throw new OurException("Room price must not be negative");
+            }
+        }
+        String roomType = text(fields.get("roomtype"));
+        if (id == null && (roomType == null || roomPrice == null)) {
+            throw new OurException("Room type and room price are required for new rooms");
+        }
+        String photo = text(fields.get("photo"));
+        if (photo != null && !hasPhotos) {
+            throw new OurException("Photo " + photo + " given but no photo archive was sent");
+        }
+        return new Row(line, id, roomType, roomPrice, text(fields.get("roomdescription")), photo);
+    }
+
+    private static String text(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * Stores the photos of the chunk, then creates and updates its rooms in one transaction. Photos are stored
+     * before the transaction starts so no connection is held during file I/O, photos of a chunk that fails
+     * are left to the image garbage collector.
+     */
+    private void writeChunk(List<Row> chunk, ZipFile photos, Map<String, String> storedPhotos, Counts counts,
+                            OutputStream progress) throws IOException {
+        List<RoomImportEvent> errors = new ArrayList<>();
+        Map<Row, String> photoUrls = new LinkedHashMap<>();
+        for (Row row : chunk) {
+            if (row.photo() == null) {
+                photoUrls.put(row, null);
+                continue;
+            }
+            String url = storedPhotos.get(row.photo());
+            if (url == null) {
+                ZipEntry entry = photos.getEntry(row.photo());
+                if (entry == null || entry.isDirectory()) {
+                    errors.add(error(row.line(), "Photo " + row.photo() + " not found in the archive"));
+                    continue;
+                }
+                try (InputStream content = photos.getInputStream(entry)) {
+                    url = awsS3Service.saveImage(content, row.photo());
+                } catch (IOException | RuntimeException e) {
+                    errors.add(error(row.line(), "Unable to store photo " + row.photo() + ": " + e.getMessage()));
+                    continue;
+                }
+                storedPhotos.put(row.photo(), url);
+            }
+            photoUrls.put(row, url);
+        }
+
+        List<Row> updates = new ArrayList<>();
+        List<Row> inserts = new ArrayList<>();
+        int photoErrors = errors.size();
+        try {
+            List<Long> createdIds = transactionTemplate.execute(status -> {
+                Set<Long> ids = new HashSet<>();
+                photoUrls.keySet().forEach(row -> {
+                    if (row.id() != null) ids.add(row.id());
+                });
+                Set<Long> existingIds = ids.isEmpty() ? Set.of() : new HashSet<>(roomRepository.findExistingIds(ids));
+                for (Row row : photoUrls.keySet()) {
+                    if (row.id() == null) {
+                        inserts.add(row);
+                    } else if (existingIds.contains(row.id())) {
+                        updates.add(row);
+                    } else {
+                        errors.add(error(row.line(), "Room " + row.id() + " not found"));
+                    }
+                }
+                if (!updates.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_ROOM, rowSetter(updates, photoUrls, true));
+                }
+                List<Long> keys = new ArrayList<>(inserts.size());
+                if (!inserts.isEmpty()) {
+                    KeyHolder keyHolder = new GeneratedKeyHolder();
+                    jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_ROOM, new String[]{"id"}),
+                            rowSetter(inserts, photoUrls, false), keyHolder);
+                    for (Map<String, Object> key : keyHolder.getKeyList()) {
+                        keys.add(((Number) key.values().iterator().next()).longValue());
+                    }
+                }
+                return keys;
+            });
+
+            for (int i = 0; i < inserts.size(); i++) {
+                availabilityIndex.addRoom(createdIds.get(i), inserts.get(i).roomType());
+            }
+            for (Row row : updates) {
+                if (row.roomType() != null) {
+                    availabilityIndex.updateRoom(row.id(), row.roomType());
+                }
+            }
+            counts.created += inserts.size();
+            counts.updated += updates.size();
+        } catch (RuntimeException e) {
+            log.warn("Room import chunk ending on line {} failed", counts.line, e);
+            errors.subList(photoErrors, errors.size()).clear();
+            for (Row row : photoUrls.keySet()) {
+                errors.add(error(row.line(), "Chunk not saved: " + e.getMessage()));
+            }
+        }
+
+        counts.failed += errors.size();
+        for (RoomImportEvent event : errors) {
+            write(progress, event);
+        }
+        write(progress, summary("progress", counts));
+    }
+
+    private static BatchPreparedStatementSetter rowSetter(List<Row> rows, Map<Row, String> photoUrls, boolean withId) {
+        return new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                Row row = rows.get(i);
+                statement.setString(1, row.roomType());
+                statement.setBigDecimal(2, row.roomPrice());
+                statement.setString(3, row.roomDescription());
+                statement.setString(4, photoUrls.get(row));
+                if (withId) {
+                    statement.setLong(5, row.id());
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        };
+    }
+
+    private static RoomImportEvent error(int line, String message) {
+        RoomImportEvent event = new RoomImportEvent();
+        event.setType("error");
+        event.setLine(line);
+        event.setMessage(message);
+        return event;
+    }
+
+    private static RoomImportEvent summary(String type, Counts counts) {
+        RoomImportEvent event = new RoomImportEvent();
+        event.setType(type);
+        event.setLine(counts.line);
+        event.setRowsRead(counts.rowsRead);
+        event.setCreated(counts.created);
+        event.setUpdated(counts.updated);
+        event.setFailed(counts.failed);
+        return event;
+    }
+
+    private void write(OutputStream progress, RoomImportEvent event) throws IOException {
+        progress.write(objectMapper.writeValueAsBytes(event));
+        progress.write('\n');
+        progress.flush();
+    }
+}
@@ -0,0 +1,384 @@
+package com.hazratdev.HazratHotel.service;
+
+import com.hazratdev.HazratHotel.dto.RoomDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory search over the {@link RoomCatalog}: inverted indexes from the lowercased words of the room type and of
+ * the type and description together to the sorted ids of their rooms, and the room prices as whole cents sorted
+ * by price. Every query word matches the indexed words it is a prefix of.
+ * <p>
+ * The index follows the catalog version. When a search finds a newer version, only the rooms that differ from the
+ * indexed version are reindexed into a copy, which is then swapped in. Searches only wait while that happens.
+ */
+@Component
+public class RoomSearchIndex {
+
+    private static final long NO_PRICE = Long.MIN_VALUE;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    /**
+     * Above one match in this many rooms, walking all rooms in order is cheaper than sorting the matches.
+     */
+    private static final int DENSE_MATCH_RATIO = 16;
+    /**
+     * Ids come from an auto increment, so a table from id to position stays small unless most ids were deleted.
+     */
+    private static final int MAX_UNUSED_IDS_PER_ROOM = 4;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    private volatile Index current;
+
+    /**
+     * Immutable version of the index, built from one catalog snapshot.
+     */
+    private static final class Index {
+
+        private final RoomCatalog.Snapshot snapshot;
+        private final TreeMap<String, long[]> typeWords;
+        private final TreeMap<String, long[]> textWords;
+        /**
+         * Ids of all rooms ascending, with the room and its price in cents at the same position.
+         */
+        private final long[] roomIds;
+        private final RoomDTO[] rooms;
+        private final long[] priceCents;
+        /**
+         * Position of each id plus one, 0 for ids without a room, or null if the ids are too sparse.
+         */
+        private final int[] positionById;
+        /**
+         * Positions of the rooms that have a price, ordered by price and then id, next to their prices.
+         */
+        private final int[] positionsByPrice;
+        private final long[] sortedPriceCents;
+
+        private Index(RoomCatalog.Snapshot snapshot, TreeMap<String, long[]> typeWords, TreeMap<String, long[]> textWords) {
+            this.snapshot = snapshot;
+            this.typeWords = typeWords;
+            this.textWords = textWords;
+            this.rooms = snapshot.getRooms().toArray(new RoomDTO[0]);
+            this.roomIds = new long[rooms.length];
+            this.priceCents = new long[rooms.length];
+            Integer[] order = new Integer[rooms.length];
+            int priced = 0;
+            for (int i = 0; i < rooms.length; i++) {
+                roomIds[i] = rooms[i].getId();
+                priceCents[i] = cents(rooms[i].getRoomPrice());
+                if (priceCents[i] != NO_PRICE) order[priced++] = i;
+            }
+            long maxId = rooms.length == 0 ? 0 : roomIds[rooms.length - 1];
+            if (maxId < (long) (rooms.length + 1) * (MAX_UNUSED_IDS_PER_ROOM + 1)) {
+                this.positionById = new int[(int) maxId + 1];
+                for (int i = 0; i < rooms.length; i++) {
+                    if (roomIds[i] >= 0) positionById[(int) roomIds[i]] = i + 1;
+                }
+            } else {
+                this.positionById = null;
+            }
+            Arrays.sort(order, 0, priced, (a, b) -> Long.compare(priceCents[a], priceCents[b]));
+            this.positionsByPrice = new int[priced];
+            this.sortedPriceCents = new long[priced];
+            for (int i = 0; i < priced; i++) {
+                positionsByPrice[i] = order[i];
+                sortedPriceCents[i] = priceCents[order[i]];
+            }
+        }
+    }
+
+    /**
+     * Returns the rooms, in id order, whose type matches every word of {@code roomType}, whose type or description
+     * matches every word of {@code text} and whose price lies within {@code minPrice}..{@code maxPrice}. Null or
+     * blank criteria don't filter, criteria without any word match nothing. The rooms are shared with the catalog
+     * and must not be modified.
+     */
+    public List<RoomDTO> search(String text, String roomType, BigDecimal minPrice, BigDecimal maxPrice) {
+        Set<String> typeQuery = words(roomType);
+        Set<String> textQuery = words(text);
+        if (typeQuery.isEmpty() && roomType != null && !roomType.isBlank()
+                || textQuery.isEmpty() && text != null && !text.isBlank()) {
+            // Only separators, such as "---", which no word can match.
+            return new ArrayList<>();
+        }
+        Index index = upToDate();
+        long[] matches = null;
+        for (String word : typeQuery) {
+            matches = prefixMatches(matches, index.typeWords, word);
+        }
+        for (String word : textQuery) {
+            matches = prefixMatches(matches, index.textWords, word);
+        }
+        boolean priced = minPrice != null || maxPrice != null;
+        long min = minPrice == null ? Long.MIN_VALUE + 1 : boundCents(minPrice, RoundingMode.CEILING);
+        long max = maxPrice == null ? Long.MAX_VALUE : boundCents(maxPrice, RoundingMode.FLOOR);
+
+        if (matches == null) {
+            if (!priced) return index.snapshot.getRooms();
+            int from = firstAtLeast(index.sortedPriceCents, min);
+            int to = max == Long.MAX_VALUE ? index.sortedPriceCents.length : firstAtLeast(index.sortedPriceCents, max + 1);
+            if (from >= to) return new ArrayList<>();
+            if ((long) (to - from) * DENSE_MATCH_RATIO > index.rooms.length) {
+                return inPriceRange(index, min, max);
+            }
+            int[] positions = Arrays.copyOfRange(index.positionsByPrice, from, to);
+            Arrays.sort(positions);
+            List<RoomDTO> rooms = new ArrayList<>(positions.length);
+            for (int position : positions) {
+                rooms.add(index.rooms[position]);
+            }
+            return rooms;
+        }
+
+        List<RoomDTO> rooms = new ArrayList<>(matches.length);
+        int position = 0;
+        for (long roomId : matches) {
+            if (index.positionById != null) {
+                position = roomId >= 0 && roomId < index.positionById.length ? index.positionById[(int) roomId] - 1 : -1;
+                if (position < 0) continue;
+            } else {
+                position = Arrays.binarySearch(index.roomIds, position, index.roomIds.length, roomId);
+                if (position < 0) {
+                    position = -position - 1;
+                    continue;
+                }
+            }
+            long price = index.priceCents[position];
+            if (!priced || (price != NO_PRICE && price >= min && price <= max)) {
+                rooms.add(index.rooms[position]);
+            }
+        }
+        return rooms;
+    }
+
+    private static List<RoomDTO> inPriceRange(Index index, long min, long max) {
+        List<RoomDTO> rooms = new ArrayList<>();
+        for (int position = 0; position < index.rooms.length; position++) {
+            long price = index.priceCents[position];
+            if (price != NO_PRICE && price >= min && price <= max) {
+                rooms.add(index.rooms[position]);
+            }
+        }
+        return rooms;
+    }
+
+    /**
+     * Returns the index of the current catalog version, reindexing the rooms that changed since the indexed one.
+     */
+    private Index upToDate() {
+        RoomCatalog.Snapshot snapshot = roomCatalog.current();
+        Index index = current;
+        if (index != null && index.snapshot == snapshot) {
+            return index;
+        }
+        synchronized (this) {
+            // versions are content hashes with no order, the latest view is taken again under the lock instead
+            snapshot = roomCatalog.current();
+            index = current;
+            if (index == null || index.snapshot != snapshot) {
+                index = index == null ? build(snapshot) : reindex(index, snapshot);
+                current = index;
+            }
+            return index;
+        }
+    }
+
+    private static Index build(RoomCatalog.Snapshot snapshot) {
+        Map<String, Set<Long>> typeWords = new HashMap<>();
+        Map<String, Set<Long>> textWords = new HashMap<>();
+        for (RoomDTO room : snapshot.getRooms()) {
+            collect(typeWords, words(room.getRoomType()), room.getId());
+            collect(textWords, textWords(room), room.getId());
+        }
+        return new Index(snapshot, update(new TreeMap<>(), Map.of(), typeWords), update(new TreeMap<>(), Map.of(), textWords));
+    }
+
+    /**
+     * Copies the word indexes and replaces the id lists of only the words whose rooms changed. The positions and
+     * prices are rebuilt, they are a few primitives per room.
+     */
+    private static Index reindex(Index index, RoomCatalog.Snapshot snapshot) {
+        Set<Long> changed = new HashSet<>();
+        for (long roomId : index.roomIds) {
+            if (snapshot.getRoom(roomId).isEmpty()) changed.add(roomId);
+        }
+        for (RoomDTO room : snapshot.getRooms()) {
+            if (!sameIndexedFields(index.snapshot.getRoom(room.getId()).orElse(null), room)) changed.add(room.getId());
+        }
+
+        Map<String, Set<Long>> typeRemovals = new HashMap<>();
+        Map<String, Set<Long>> typeAdditions = new HashMap<>();
+        Map<String, Set<Long>> textRemovals = new HashMap<>();
+        Map<String, Set<Long>> textAdditions = new HashMap<>();
+        for (Long roomId : changed) {
+            index.snapshot.getRoom(roomId).ifPresent(room -> {
+                collect(typeRemovals, words(room.getRoomType()), roomId);
+                collect(textRemovals, textWords(room), roomId);
+            });
+            snapshot.getRoom(roomId).ifPresent(room -> {
+                collect(typeAdditions, words(room.getRoomType()), roomId);
+                collect(textAdditions, textWords(room), roomId);
+            });
+        }
+        return new Index(snapshot, update(index.typeWords, typeRemovals, typeAdditions),
+                update(index.textWords, textRemovals, textAdditions));
+    }
+
+    private static TreeMap<String, long[]> update(TreeMap<String, long[]> postings, Map<String, Set<Long>> removals,
+                                                  Map<String, Set<Long>> additions) {
+        if (removals.isEmpty() && additions.isEmpty()) return postings;
+        TreeMap<String, long[]> updated = new TreeMap<>(postings);
+        Set<String> words = new HashSet<>(removals.keySet());
+        words.addAll(additions.keySet());
+        for (String word : words) {
+            long[] roomIds = postings.getOrDefault(word, new long[0]);
+            roomIds = difference(roomIds, sorted(removals.getOrDefault(word, Set.of())));
+            roomIds = union(roomIds, sorted(additions.getOrDefault(word, Set.of())));
+            if (roomIds.length == 0) {
+                updated.remove(word);
+            } else {
+                updated.put(word, roomIds);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Narrows {@code matches}, null when nothing was matched yet, to the rooms of the words starting with
+     * {@code prefix}. Each word's rooms are intersected before the results are merged, which keeps the merged
+     * arrays as small as the matches.
+     */
+    private static long[] prefixMatches(long[] matches, TreeMap<String, long[]> postings, String prefix) {
+        long[] narrowed = new long[0];
+        for (long[] roomIds : postings.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+            long[] matching = matches == null ? roomIds : intersect(matches, roomIds);
+            narrowed = narrowed.length == 0 ? matching : union(narrowed, matching);
+        }
+        return narrowed;
+    }
+
+    private static long[] intersect(long[] left, long[] right) {
+        long[] both = new long[Math.min(left.length, right.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < left.length && j < right.length; ) {
+            if (left[i] < right[j]) i++;
+            else if (left[i] > right[j]) j++;
+            else {
+                both[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(both, count);
+    }
+
+    private static long[] union(long[] left, long[] right) {
+        long[] either = new long[left.length + right.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) either[count++] = left[i++];
+            else if (left[i] > right[j]) either[count++] = right[j++];
+            else {
+                either[count++] = left[i++];
+                j++;
+            }
+        }
+        while (i < left.length) either[count++] = left[i++];
+        while (j < right.length) either[count++] = right[j++];
+        return Arrays.copyOf(either, count);
+    }
+
+    private static long[] difference(long[] left, long[] right) {
+        if (right.length == 0) return left;
+        long[] remaining = new long[left.length];
+        int count = 0;
+        for (int i = 0, j = 0; i < left.length; i++) {
+            while (j < right.length && right[j] < left[i]) j++;
+            if (j == right.length || right[j] != left[i]) remaining[count++] = left[i];
+        }
+        return Arrays.copyOf(remaining, count);
+    }
+
+    private static int firstAtLeast(long[] sorted, long value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < value) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    private static long[] sorted(Set<Long> roomIds) {
+        long[] sorted = new long[roomIds.size()];
+        int i = 0;
+        for (Long roomId : roomIds) {
+            sorted[i++] = roomId;
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static void collect(Map<String, Set<Long>> byWord, Set<String> words, Long roomId) {
+        for (String word : words) {
+            byWord.computeIfAbsent(word, key -> new HashSet<>()).add(roomId);
+        }
+    }
+
+    private static boolean sameIndexedFields(RoomDTO indexed, RoomDTO room) {
+        return indexed != null
+                && Objects.equals(indexed.getRoomType(), room.getRoomType())
+                && Objects.equals(indexed.getRoomDescription(), room.getRoomDescription())
+                && cents(indexed.getRoomPrice()) == cents(room.getRoomPrice());
+    }
+
+    private static Set<String> textWords(RoomDTO room) {
+        Set<String> words = words(room.getRoomType());
+        words.addAll(words(room.getRoomDescription()));
+        return words;
+    }
+
+    /**
+     * Splits on anything that is not a letter or a digit and lowercases the words.
+     */
+    private static Set<String> words(String value) {
+        Set<String> words = new HashSet<>();
+        if (value == null) return words;
+        for (String word : WORD_SEPARATOR.split(value.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) words.add(word);
+        }
+        return words;
+    }
+
+    /**
+     * Cents of a price, clamped to the range of the index so that no price overflows or collides with {@link #NO_PRICE}.
+     */
+    private static long boundCents(BigDecimal price, RoundingMode rounding) {
+        BigDecimal cents = price.movePointRight(2).setScale(0, rounding);
+        if (cents.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) >= 0) return Long.MAX_VALUE;
+        if (cents.compareTo(BigDecimal.valueOf(Long.MIN_VALUE + 1)) <= 0) return Long.MIN_VALUE + 1;
+        return cents.longValueExact();
+    }
+
+    private static long cents(BigDecimal price) {
+        return price == null ? NO_PRICE : boundCents(price, RoundingMode.HALF_UP);
+    }
+}
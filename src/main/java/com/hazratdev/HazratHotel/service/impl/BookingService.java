@@ -0,0 +1,430 @@
+package com.hazratdev.HazratHotel.service.impl;
+
+import com.hazratdev.HazratHotel.datasource.ReadYourWrites;
+import com.hazratdev.HazratHotel.dto.BookingDTO;
+import com.hazratdev.HazratHotel.dto.BookingImportResult;
+import com.hazratdev.HazratHotel.dto.BookingImportRow;
+import com.hazratdev.HazratHotel.dto.BookingRequest;
+import com.hazratdev.HazratHotel.dto.LockMetricsDTO;
+import com.hazratdev.HazratHotel.dto.Response;
+import com.hazratdev.HazratHotel.entity.Booking;
+import com.hazratdev.HazratHotel.entity.Room;
+import com.hazratdev.HazratHotel.entity.User;
+import com.hazratdev.HazratHotel.exception.OurException;
+import com.hazratdev.HazratHotel.repo.BookingRepository;
+import com.hazratdev.HazratHotel.repo.RoomRepository;
+import com.hazratdev.HazratHotel.repo.UserRepository;
+import com.hazratdev.HazratHotel.service.ConfirmationCodeGenerator;
+import com.hazratdev.HazratHotel.service.RoomAvailabilityIndex;
+import com.hazratdev.HazratHotel.service.interfac.IBookingService;
+import com.hazratdev.HazratHotel.utils.DayBitmap;
+import com.hazratdev.HazratHotel.utils.StripedLocks;
+import com.hazratdev.HazratHotel.utils.Utils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Bookings of the same room are serialized on a striped per-room lock that is held until the
+ * overlap check and the insert have committed, so two requests can't both see the room free.
+ * Bookings of different rooms mostly land on different stripes and run in parallel.
+ * The locks are per JVM, every instance writing bookings must share one process.
+ * <p>
+ * Bookings found by confirmation code are kept in a small cache for the guest "find my booking" page, which is
+ * opened again and again with the same code. Entries expire after {@code booking.lookup-cache.ttl-seconds}, so room
+ * changes show up within that delay, and are dropped right away when the booking is cancelled.
+ */
+@Service
+public class BookingService implements IBookingService {
+
+    private static final int ROOM_LOCK_STRIPES = 256;
+    private static final int MAX_IMPORT_ROWS = 10_000;
+    private static final int IMPORT_BATCH_SIZE = 1_000;
+    private static final String INSERT_BOOKING = "INSERT INTO bookins (check_in_date, check_out_date, num_of_adults, "
+            + "num_of_children, total_num_of_guest, booking_confirmation_code, user_id, room_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final StripedLocks roomLocks = new StripedLocks(ROOM_LOCK_STRIPES);
+
+    @Value("${booking.lookup-cache.ttl-seconds:60}")
+    private long lookupCacheTtlSeconds;
+
+    @Value("${booking.lookup-cache.max-entries:10000}")
+    private int lookupCacheMaxEntries;
+
+    private final Map<String, CachedBooking> bookingsByCode = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedBooking> eldest) {
+            return size() > lookupCacheMaxEntries;
+        }
+    };
+
+    private record CachedBooking(BookingDTO booking, long loadedAtMillis) {
+    }
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ConfirmationCodeGenerator confirmationCodeGenerator;
+
+    @Override
+    public Response saveBooking(Long roomId, Long userId, BookingRequest bookingRequest) {
+        Response response = new Response();
+
+        try {
+            if (bookingRequest.getCheckInDate() == null || bookingRequest.getCheckOutDate() == null) {
+                throw new OurException("Check in and check out dates are required");
+            }
+            if (bookingRequest.getCheckOutDate().isBefore(bookingRequest.getCheckInDate())) {
+                throw new OurException("Check in date must come before check out date");
+            }
+
+            Booking savedBooking = roomLocks.withLock(roomId, () -> {
+                Booking booking = transactionTemplate.execute(status -> {
+                    Room room = roomRepository.findById(roomId).orElseThrow(() -> new OurException("Room not found"));
+                    User user = userRepository.findById(userId).orElseThrow(() -> new OurException("User not found"));
+                    if (bookingRepository.existsOverlappingBooking(roomId, bookingRequest.getCheckInDate(), bookingRequest.getCheckOutDate())) {
+                        throw new OurException("Room not available for selected date range");
+                    }
+                    Booking newBooking = new Booking();
+                    newBooking.setCheckInDate(bookingRequest.getCheckInDate());
+                    newBooking.setCheckOutDate(bookingRequest.getCheckOutDate());
+                    newBooking.setNumOfAdults(bookingRequest.getNumOfAdults());
+                    newBooking.setNumOfChildren(bookingRequest.getNumOfChildren());
+                    newBooking.setRoom(room);
+                    newBooking.setUser(user);
+                    newBooking.setBookingConfirmationCode(confirmationCodeGenerator.next());
+                    return bookingRepository.save(newBooking);
+                });
+                availabilityIndex.recordBooking(roomId, booking.getCheckInDate(), booking.getCheckOutDate());
+                return booking;
+            });
+
+            // an admin may book for a guest, both must find the booking in their next reads
+            readYourWrites.recordWrite();
+            readYourWrites.recordWrite(savedBooking.getUser().getEmail());
+            response.setStatusCode(200);
+            response.setMessage("Booking saved successfully");
+            response.setBookingConfirmationCode(savedBooking.getBookingConfirmationCode());
+
+        } catch (OurException e) {
+            response.setStatusCode(400);
+            response.setMessage(e.getMessage());
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Error saving a booking " + e.getMessage());
+        }
+
+        return response;
+    }
+
+    /**
+     * Imports many bookings in one transaction. Rows are checked set-wise: one query for the known rooms, one for the
+     * known users and one per chunk of rooms for the existing bookings overlapping the imported dates, which are
+     * loaded into a {@link DayBitmap} per room that also catches overlaps between rows of the same import.
+     * Accepted rows are inserted through JDBC batches while the locks of all rooms involved are held.
+     */
+    @Override
+    public Response importBookings(List<BookingImportRow> rows) {
+        Response response = new Response();
+
+        try {
+            if (rows == null || rows.isEmpty()) {
+                throw new OurException("No bookings to import");
+            }
+            if (rows.size() > MAX_IMPORT_ROWS) {
+                throw new OurException("At most " + MAX_IMPORT_ROWS + " bookings can be imported at once");
+            }
+
+            BookingImportResult[] results = new BookingImportResult[rows.size()];
+            Map<Long, List<Integer>> rowsByRoom = new TreeMap<>();
+            for (int i = 0; i < rows.size(); i++) {
+                String problem = validateImportRow(rows.get(i));
+                if (problem != null) {
+                    results[i] = new BookingImportResult(i, 400, problem, null);
+                } else {
+                    rowsByRoom.computeIfAbsent(rows.get(i).getRoomId(), id -> new ArrayList<>()).add(i);
+                }
+            }
+
+            if (!rowsByRoom.isEmpty()) {
+                roomLocks.withLocks(rowsByRoom.keySet(), () -> {
+                    List<Integer> imported = transactionTemplate.execute(status -> importLocked(rows, rowsByRoom, results));
+                    for (int index : imported) {
+                        BookingImportRow row = rows.get(index);
+                        availabilityIndex.recordBooking(row.getRoomId(), row.getCheckInDate(), row.getCheckOutDate());
+                    }
+                    return null;
+                });
+            }
+
+            long importedCount = Arrays.stream(results).filter(result -> result.getStatusCode() == 200).count();
+            response.setStatusCode(200);
+            response.setMessage(importedCount + " of " + rows.size() + " bookings imported");
+            response.setBookingImportResults(Arrays.asList(results));
+
+        } catch (OurException e) {
+            response.setStatusCode(400);
+            response.setMessage(e.getMessage());
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Error importing bookings " + e.getMessage());
+        }
+
+        return response;
+    }
+
+    private static String validateImportRow(BookingImportRow row) {
+        if (row == null) return "Booking is empty";
+        if (row.getRoomId() == null || row.getUserId() == null) return "Room and user are required";
+        if (row.getCheckInDate() == null || row.getCheckOutDate() == null) return "Check in and check out dates are required";
+        if (row.getCheckOutDate().isBefore(row.getCheckInDate())) return "Check in date must come before check out date";
+        if (row.getNumOfAdults() < 1) return "Number of adults must not be less that 1";
+        if (row.getNumOfChildren() < 0) return "Number of Children must not be less that 0";
+        return null;
+    }
+
+    /**
+     * Fills in the result of every still undecided row and inserts the accepted ones, returning their indexes.
+     * Runs inside the import transaction with the locks of all rooms in {@code rowsByRoom} held.
+     */
+    private List<Integer> importLocked(List<BookingImportRow> rows, Map<Long, List<Integer>> rowsByRoom,
+                                       BookingImportResult[] results) {
+        Set<Long> userIds = new HashSet<>();
+        rowsByRoom.values().forEach(indexes -> indexes.forEach(index -> userIds.add(rows.get(index).getUserId())));
+        Set<Long> knownRooms = new HashSet<>();
+        Set<Long> knownUsers = new HashSet<>();
+        for (List<Long> chunk : chunks(new ArrayList<>(rowsByRoom.keySet()))) {
+            knownRooms.addAll(roomRepository.findExistingIds(chunk));
+        }
+        for (List<Long> chunk : chunks(new ArrayList<>(userIds))) {
+            knownUsers.addAll(userRepository.findExistingIds(chunk));
+        }
+
+        Map<Long, DayBitmap> occupancy = new HashMap<>();
+        for (List<Long> roomChunk : chunks(new ArrayList<>(knownRooms))) {
+            LocalDate from = LocalDate.MAX;
+            LocalDate to = LocalDate.MIN;
+            for (Long roomId : roomChunk) {
+                occupancy.put(roomId, new DayBitmap());
+                for (int index : rowsByRoom.get(roomId)) {
+                    BookingImportRow row = rows.get(index);
+                    if (row.getCheckInDate().isBefore(from)) from = row.getCheckInDate();
+                    if (row.getCheckOutDate().isAfter(to)) to = row.getCheckOutDate();
+                }
+            }
+            for (Object[] range : bookingRepository.findBookingRangesOverlapping(roomChunk, from, to)) {
+                if (range[1] != null && range[2] != null) {
+                    occupancy.get((Long) range[0]).set((LocalDate) range[1], (LocalDate) range[2]);
+                }
+            }
+        }
+
+        List<Integer> accepted = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        for (Map.Entry<Long, List<Integer>> entry : rowsByRoom.entrySet()) {
+            DayBitmap roomOccupancy = occupancy.get(entry.getKey());
+            for (int index : entry.getValue()) {
+                BookingImportRow row = rows.get(index);
+                if (roomOccupancy == null) {
+                    results[index] = new BookingImportResult(index, 400, "Room not found", null);
+                } else if (!knownUsers.contains(row.getUserId())) {
+                    results[index] = new BookingImportResult(index, 400, "User not found", null);
+                } else if (roomOccupancy.intersects(row.getCheckInDate(), row.getCheckOutDate())) {
+                    results[index] = new BookingImportResult(index, 400, "Room not available for selected date range", null);
+                } else {
+                    roomOccupancy.set(row.getCheckInDate(), row.getCheckOutDate());
+                    String confirmationCode = confirmationCodeGenerator.next();
+                    results[index] = new BookingImportResult(index, 200, "Booking imported", confirmationCode);
+                    accepted.add(index);
+                    batch.add(new Object[]{Date.valueOf(row.getCheckInDate()), Date.valueOf(row.getCheckOutDate()),
+                            row.getNumOfAdults(), row.getNumOfChildren(), row.getNumOfAdults() + row.getNumOfChildren(),
+                            confirmationCode, row.getUserId(), row.getRoomId()});
+                    if (batch.size() == IMPORT_BATCH_SIZE) {
+                        jdbcTemplate.batchUpdate(INSERT_BOOKING, batch);
+                        batch.clear();
+                    }
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_BOOKING, batch);
+        }
+        return accepted;
+    }
+
+    private static <T> List<List<T>> chunks(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += IMPORT_BATCH_SIZE) {
+            chunks.add(values.subList(from, Math.min(from + IMPORT_BATCH_SIZE, values.size())));
+        }
+        return chunks;
+    }
+
+    @Override
+    public Response findBookingByConfirmationCode(String confirmationCode) {
+        Response response = new Response();
+
+        try {
+            String code = ConfirmationCodeGenerator.lookupKey(confirmationCode);
+            if (code == null) {
+                throw new OurException("Booking not found");
+            }
+            BookingDTO bookingDTO = cachedBooking(code);
+            if (bookingDTO == null) {
+                Booking booking = bookingRepository.findByBookingConfirmationCode(code)
+                        .orElseThrow(() -> new OurException("Booking not found"));
+                bookingDTO = Utils.mapBookingEntityToBookingDTOPlusBookedRooms(booking, true);
+                synchronized (bookingsByCode) {
+                    bookingsByCode.put(code, new CachedBooking(bookingDTO, System.currentTimeMillis()));
+                }
+            }
+            response.setStatusCode(200);
+            response.setMessage("Booking found");
+            response.setBooking(bookingDTO);
+
+        } catch (OurException e) {
+            response.setStatusCode(400);
+            response.setMessage(e.getMessage());
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Error finding a booking " + e.getMessage());
+        }
+
+        return response;
+    }
+
+    private BookingDTO cachedBooking(String code) {
+        synchronized (bookingsByCode) {
+            CachedBooking cached = bookingsByCode.get(code);
+            if (cached == null) return null;
+            if (cached.loadedAtMillis() + lookupCacheTtlSeconds * 1000 < System.currentTimeMillis()) {
+                bookingsByCode.remove(code);
+                return null;
+            }
+            return cached.booking();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Response getAllBookings() {
+        Response response = new Response();
+
+        try {
+            List<Booking> bookingList = bookingRepository.findAll(Sort.by(Sort.Direction.DESC, "id"));
+            List<BookingDTO> bookingDTOList = Utils.mapBookingListEntityToBookingListDTO(bookingList);
+            response.setStatusCode(200);
+            response.setMessage("All bookings found");
+            response.setBookingList(bookingDTOList);
+
+        } catch (OurException e) {
+            response.setStatusCode(400);
+            response.setMessage(e.getMessage());
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Error getting all bookings " + e.getMessage());
+        }
+
+        return response;
+    }
+
+    @Override
+    public Response cancelBooking(Long bookingId) {
+        Response response = new Response();
+
+        try {
+            Booking cancelled = readYourWrites.onPrimary(() -> bookingRepository.findById(bookingId))
+                    .orElseThrow(() -> new OurException("Booking not found"));
+            Long roomId = cancelled.getRoom() == null ? null : cancelled.getRoom().getId();
+
+            if (roomId == null) {
+                bookingRepository.deleteById(bookingId);
+            } else {
+                roomLocks.withLock(roomId, () -> {
+                    bookingRepository.deleteById(bookingId);
+                    availabilityIndex.reindexRoom(roomId);
+                    return null;
+                });
+            }
+            if (cancelled.getBookingConfirmationCode() != null) {
+                synchronized (bookingsByCode) {
+                    bookingsByCode.remove(cancelled.getBookingConfirmationCode());
+                }
+            }
+            response.setStatusCode(200);
+            response.setMessage("Booking cancelled successfully");
+
+        } catch (OurException e) {
+            response.setStatusCode(400);
+            response.setMessage(e.getMessage());
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Error cancelling a booking " + e.getMessage());
+        }
+
+        return response;
+    }
+
+    @Override
+    public void forgetDeletedBookings(Collection<Long> roomIds, Collection<String> confirmationCodes) {
+        for (Long roomId : new HashSet<>(roomIds)) {
+            roomLocks.withLock(roomId, () -> {
+                availabilityIndex.reindexRoom(roomId);
+                return null;
+            });
+        }
+        synchronized (bookingsByCode) {
+            bookingsByCode.keySet().removeAll(confirmationCodes);
+        }
+    }
+
+    @Override
+    public LockMetricsDTO getLockMetrics() {
+        LockMetricsDTO metrics = new LockMetricsDTO();
+        long acquisitions = roomLocks.getAcquisitions();
+        long contended = roomLocks.getContendedAcquisitions();
+        metrics.setStripes(roomLocks.stripeCount());
+        metrics.setAcquisitions(acquisitions);
+        metrics.setContendedAcquisitions(contended);
+        metrics.setContentionRatio(acquisitions == 0 ? 0 : (double) contended / acquisitions);
+        metrics.setAverageWaitMillis(contended == 0 ? 0 : roomLocks.getTotalWaitNanos() / 1e6 / contended);
+        metrics.setMaxWaitMillis(roomLocks.getMaxWaitNanos() / 1e6);
+        return metrics;
+    }
+}
@@ -1,37 +1,91 @@
 package com.hazratdev.HazratHotel.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazratdev.HazratHotel.datasource.ReadYourWrites;
 import com.hazratdev.HazratHotel.dto.Response;
 import com.hazratdev.HazratHotel.dto.RoomDTO;
+import com.hazratdev.HazratHotel.dto.RoomTypeAvailability;
 import com.hazratdev.HazratHotel.entity.Room;
 import com.hazratdev.HazratHotel.exception.OurException;
+import com.hazratdev.HazratHotel.metrics.SerializedResponse;
 import com.hazratdev.HazratHotel.repo.BookingRepository;
 import com.hazratdev.HazratHotel.repo.RoomRepository;
 import com.hazratdev.HazratHotel.service.AwsS3Service;
+import com.hazratdev.HazratHotel.service.RoomCatalogImporter;
+import com.hazratdev.HazratHotel.service.RoomAvailabilityIndex;
+import com.hazratdev.HazratHotel.service.RoomCatalog;
+import com.hazratdev.HazratHotel.service.RoomSearchIndex;
 import com.hazratdev.HazratHotel.service.interfac.IRoomService;
+import com.hazratdev.HazratHotel.service.storage.ImageVariantCache;
+import com.hazratdev.HazratHotel.service.storage.PendingImage;
+import com.hazratdev.HazratHotel.utils.DayBitmap;
+import com.hazratdev.HazratHotel.utils.JsonStreams;
 import com.hazratdev.HazratHotel.utils.Utils;
-import jdk.jshell.execution.Util;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 
 @Service
 public class RoomService implements IRoomService {
 
+    private static final int MAX_CALENDAR_DAYS = 93;
+
     @Autowired
     private RoomRepository roomRepository;
 
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
     @Autowired
     private AwsS3Service awsS3Service;
 
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private ImageVariantCache imageVariantCache;
+
+    @Autowired
+    private RoomCatalogImporter roomCatalogImporter;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    @Autowired
+    private RoomSearchIndex roomSearchIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
 
     @Override
     public Response addNewRoom(MultipartFile photo, String roomType, BigDecimal roomPrice, String description) {
@@ -39,14 +93,20 @@ public class RoomService implements IRoomService {
         Response response = new Response();
 
         try {
-            String imageUrl = awsS3Service.saveImageToS3(photo);
+            PendingImage image = awsS3Service.stageImage(photo);
             Room room = new Room();
             room.setRoomType(roomType);
             room.setRoomPrice(roomPrice);
-            room.setRoomPhotoUrl(imageUrl);
+            room.setRoomPhotoUrl(image.getStagedLocation());
             room.setRoomDescription(description);
             Room savedRoom = roomRepository.save(room);
-            RoomDTO roomDTO = Utils.mapRoomEntityToRoomDTO(savedRoom);
+            image.whenStored(storedUrl -> {
+                roomRepository.replaceRoomPhotoUrl(savedRoom.getId(), image.getStagedLocation(), storedUrl);
+                roomCatalog.refreshRoomAfterCommit(savedRoom.getId());
+            });
+            availabilityIndex.addRoom(savedRoom.getId(), savedRoom.getRoomType());
+            roomCatalog.refreshRoomAfterCommit(savedRoom.getId());
+            RoomDTO roomDTO = withPhotoVariants(Utils.mapRoomEntityToRoomDTO(savedRoom));
             response.setStatusCode(200);
             response.setMessage("Room created successfully");
             response.setRoom(roomDTO);
@@ -60,9 +120,50 @@ public class RoomService implements IRoomService {
         return response;
     }
 
+    /**
+     * The photo archive is copied to a temporary file first, since zip entries can only be looked up by name
+     * in a file. The rooms file is read straight from the upload.
+     */
+    @Override
+    public void importRooms(MultipartFile rooms, RoomCatalogImporter.Format format, MultipartFile photos,
+                            OutputStream progress) throws IOException {
+        Path photoArchive = null;
+        try (InputStream content = rooms.getInputStream()) {
+            if (photos != null && !photos.isEmpty()) {
+                photoArchive = Files.createTempFile("room-import-", ".zip");
+                photos.transferTo(photoArchive);
+            }
+            roomCatalogImporter.importRooms(content, format, photoArchive, progress);
+        } finally {
+            roomCatalog.refreshAfterCommit();
+            if (photoArchive != null) {
+                Files.deleteIfExists(photoArchive);
+            }
+        }
+    }
+
     @Override
     public List<String> getAllRoomTypes() {
-        return roomRepository.findDistinctRoomTypes();
+        return roomCatalog.current().getRoomTypes();
+    }
+
+    @Override
+    public byte[] getAllRoomTypesJson() {
+        return roomCatalog.current().serialized("room-types", snapshot -> toJson(snapshot.getRoomTypes()));
+    }
+
+    /**
+     * The successful {@link #getAllRooms()} response, serialized once per catalog version. Returns null if the
+     * catalog can't be loaded, callers then fall back to {@link #getAllRooms()} for the error response.
+     */
+    @Override
+    @SerializedResponse
+    public byte[] getAllRoomsJson() {
+        try {
+            return roomCatalog.current().serialized("all-rooms", snapshot -> toJson(allRoomsResponse(snapshot.getRooms())));
+        } catch (RuntimeException e) {
+            return null;
+        }
     }
 
     @Override
@@ -71,11 +172,32 @@ public class RoomService implements IRoomService {
         Response response = new Response();
 
         try {
-            List<Room> rooms = roomRepository.findAll(Sort.by(Sort.Direction.ASC, "id"));
-            List<RoomDTO> roomDTOList = Utils.mapRoomListEntityToRoomListDTO(rooms);
+            response = allRoomsResponse(roomCatalog.current().getRooms());
+        }catch (OurException e){
+            response.setStatusCode(400);
+            response.setMessage(e.getMessage());
+        }catch (Exception e){
+            response.setStatusCode(500);
+            response.setMessage(e.getMessage());
+        }
+
+        return response;
+    }
+
+    @Override
+    public Response getRoomsPage(Long afterId, Integer limit) {
+
+        Response response = new Response();
+
+        try {
+            int pageSize = Utils.pageSize(limit);
+            List<RoomDTO> roomDTOList = roomCatalog.current().getRoomsAfter(afterId == null ? 0L : afterId, pageSize);
             response.setStatusCode(200);
-            response.setMessage("All rooms found");
+            response.setMessage("Rooms found");
             response.setRoomList(roomDTOList);
+            if (roomDTOList.size() == pageSize) {
+                response.setNextCursor(roomDTOList.get(roomDTOList.size() - 1).getId());
+            }
         }catch (OurException e){
             response.setStatusCode(400);
             response.setMessage(e.getMessage());
@@ -87,12 +209,22 @@ public class RoomService implements IRoomService {
         return response;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllRooms(OutputStream outputStream) throws IOException {
+        try (Stream<RoomDTO> rooms = roomRepository.streamAllRoomDTOs()) {
+            JsonStreams.writeArray(rooms, this::withPhotoVariants, objectMapper, entityManager, outputStream);
+        }
+    }
+
     @Override
     public Response deleteRoom(Long roomId) {
         Response response = new Response();
         try {
-            roomRepository .findById(roomId).orElseThrow(() -> new OurException("Room not found"));
+            readYourWrites.onPrimary(() -> roomRepository.findById(roomId)).orElseThrow(() -> new OurException("Room not found"));
             roomRepository.deleteById(roomId);
+            availabilityIndex.removeRoom(roomId);
+            roomCatalog.refreshRoomAfterCommit(roomId);
             response.setStatusCode(200);
             response.setMessage("Room deleted successfully");
 
@@ -116,7 +248,7 @@ public class RoomService implements IRoomService {
                 throw new OurException("Room ID is required");
             }
 
-            Room room = roomRepository.findById(roomId)
+            Room room = readYourWrites.onPrimary(() -> roomRepository.findById(roomId))
                     .orElseThrow(() -> new OurException("Room not found"));
 
             if (StringUtils.hasText(roomType)) {
@@ -131,13 +263,23 @@ public class RoomService implements IRoomService {
                 room.setRoomDescription(description);
             }
 
+            PendingImage image = null;
             if (photo != null && !photo.isEmpty()) {
-                String imageUrl = awsS3Service.saveImageToS3(photo);
-                room.setRoomPhotoUrl(imageUrl);
+                image = awsS3Service.stageImage(photo);
+                room.setRoomPhotoUrl(image.getStagedLocation());
             }
 
             Room updatedRoom = roomRepository.save(room);
-            RoomDTO roomDTO = Utils.mapRoomEntityToRoomDTO(updatedRoom);
+            if (image != null) {
+                PendingImage stagedImage = image;
+                stagedImage.whenStored(storedUrl -> {
+                    roomRepository.replaceRoomPhotoUrl(roomId, stagedImage.getStagedLocation(), storedUrl);
+                    roomCatalog.refreshRoomAfterCommit(roomId);
+                });
+            }
+            availabilityIndex.updateRoom(updatedRoom.getId(), updatedRoom.getRoomType());
+            roomCatalog.refreshRoomAfterCommit(roomId);
+            RoomDTO roomDTO = withPhotoVariants(Utils.mapRoomEntityToRoomDTO(updatedRoom));
 
             response.setStatusCode(200);
             response.setMessage("Room updated successfully");
@@ -160,8 +302,7 @@ public class RoomService implements IRoomService {
         Response response = new Response();
 
         try {
-           Room room = roomRepository .findById(roomId).orElseThrow(() -> new OurException("Room not found"));
-           RoomDTO roomDTO = Utils.mapRoomEntityToRoomDTO(room);
+           RoomDTO roomDTO = roomCatalog.current().getRoom(roomId).orElseThrow(() -> new OurException("Room not found"));
            response.setStatusCode(200);
            response.setMessage("Room found");
            response.setRoom(roomDTO);
@@ -178,12 +319,23 @@ public class RoomService implements IRoomService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Response getAvailableRoomByDateAndType(LocalDate checkInDate, LocalDate checkOutDate, String roomType) {
         Response response = new Response();
 
         try {
-            List<Room> roomList = roomRepository.findAvailableRoomByDatesAndTypes(checkInDate, checkOutDate, roomType);
-            List<RoomDTO> roomDTOList = Utils.mapRoomListEntityToRoomListDTO(roomList);
+            List<RoomDTO> roomDTOList;
+            if (roomType != null && availabilityIndex.isReady()) {
+                // the catalog DTOs already carry their photo variants and are shared, so they are listed as they are
+                RoomCatalog.Snapshot catalog = roomCatalog.current();
+                roomDTOList = availabilityIndex.findAvailableRoomIds(checkInDate, checkOutDate, roomType).stream()
+                        .map(catalog::getRoom)
+                        .flatMap(Optional::stream)
+                        .toList();
+            } else {
+                roomDTOList = roomRepository.findAvailableRoomByDatesAndTypes(checkInDate, checkOutDate, roomType);
+                roomDTOList.forEach(this::withPhotoVariants);
+            }
             response.setStatusCode(200);
             response.setMessage("Available rooms found");
             response.setRoomList(roomDTOList);
@@ -199,13 +351,14 @@ public class RoomService implements IRoomService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Response getAvailableRooms() {
         Response response = new Response();
         try {
-            List<Room> room = roomRepository.getAvailableRooms();
-            List<RoomDTO> roomDTOList = Utils.mapRoomListEntityToRoomListDTO(room);
+            List<RoomDTO> roomDTOList = roomRepository.getAvailableRooms();
             response.setStatusCode(200);
             response.setMessage("Available rooms found");
+            roomDTOList.forEach(this::withPhotoVariants);
             response.setRoomList(roomDTOList);
 
         }catch (OurException e){
@@ -217,4 +370,120 @@ public class RoomService implements IRoomService {
         }
         return response;
     }
+
+    /**
+     * Rooms matching the words and price range from the in-memory search index, narrowed to those free for the whole
+     * stay when dates are given. Availability comes from the availability index, or from one query of the bookings of
+     * the matching rooms until it is warm.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Response searchRooms(String text, String roomType, BigDecimal minPrice, BigDecimal maxPrice,
+                                LocalDate checkInDate, LocalDate checkOutDate) {
+        Response response = new Response();
+        try {
+            if ((checkInDate == null) != (checkOutDate == null)) {
+                throw new OurException("Please provide both checkInDate and checkOutDate");
+            }
+            if (checkInDate != null && checkOutDate.isBefore(checkInDate)) {
+                throw new OurException("Check in date must come before check out date");
+            }
+            if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+                throw new OurException("minPrice must not be greater than maxPrice");
+            }
+            List<RoomDTO> roomDTOList = roomSearchIndex.search(text, roomType, minPrice, maxPrice);
+            if (checkInDate != null && !roomDTOList.isEmpty()) {
+                roomDTOList = freeDuring(roomDTOList, checkInDate, checkOutDate);
+            }
+            response.setStatusCode(200);
+            response.setMessage("Rooms found");
+            response.setRoomList(roomDTOList);
+        }catch (OurException e){
+            response.setStatusCode(400);
+            response.setMessage(e.getMessage());
+        }catch (Exception e){
+            response.setStatusCode(500);
+            response.setMessage(e.getMessage());
+        }
+        return response;
+    }
+
+    private List<RoomDTO> freeDuring(List<RoomDTO> rooms, LocalDate checkInDate, LocalDate checkOutDate) {
+        if (availabilityIndex.isReady()) {
+            return rooms.stream()
+                    .filter(room -> availabilityIndex.isAvailable(room.getId(), checkInDate, checkOutDate))
+                    .toList();
+        }
+        Set<Long> booked = new HashSet<>();
+        for (Object[] row : bookingRepository.findBookingRangesOverlapping(rooms.stream().map(RoomDTO::getId).toList(), checkInDate, checkOutDate)) {
+            booked.add((Long) row[0]);
+        }
+        return rooms.stream().filter(room -> !booked.contains(room.getId())).toList();
+    }
+
+    /**
+     * Free rooms of every room type for each day of the window, from the occupancy bitmaps of the availability index.
+     * Until the index is warm, the bitmaps are built from one query of the bookings overlapping the window.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Response getAvailabilityCalendar(LocalDate start, int days) {
+        Response response = new Response();
+        try {
+            if (days < 1 || days > MAX_CALENDAR_DAYS) {
+                throw new OurException("days must be between 1 and " + MAX_CALENDAR_DAYS);
+            }
+            List<RoomTypeAvailability> calendar = availabilityIndex.isReady()
+                    ? availabilityIndex.availabilityCalendar(start, days)
+                    : queryAvailabilityCalendar(start, days);
+            response.setStatusCode(200);
+            response.setMessage("Availability calendar found");
+            response.setAvailabilityCalendar(calendar);
+        }catch (OurException e){
+            response.setStatusCode(400);
+            response.setMessage(e.getMessage());
+        }catch (Exception e){
+            response.setStatusCode(500);
+            response.setMessage(e.getMessage());
+        }
+        return response;
+    }
+
+    private List<RoomTypeAvailability> queryAvailabilityCalendar(LocalDate start, int days) {
+        Map<Long, DayBitmap> occupancy = new HashMap<>();
+        for (Object[] row : bookingRepository.findBookingRangesBetween(start, start.plusDays(days - 1))) {
+            if (row[1] != null && row[2] != null) {
+                occupancy.computeIfAbsent((Long) row[0], roomId -> new DayBitmap()).set((LocalDate) row[1], (LocalDate) row[2]);
+            }
+        }
+        Map<String, RoomTypeAvailability> byType = new TreeMap<>();
+        for (Object[] room : roomRepository.findAllRoomIdsAndTypes()) {
+            if (room[1] == null) continue;
+            DayBitmap bookedDays = occupancy.get((Long) room[0]);
+            byType.computeIfAbsent((String) room[1], type -> new RoomTypeAvailability(type, days))
+                    .addRoom(bookedDays == null ? new BitSet() : bookedDays.window(start, days));
+        }
+        return new ArrayList<>(byType.values());
+    }
+
+    private static Response allRoomsResponse(List<RoomDTO> roomDTOList) {
+        Response response = new Response();
+        response.setStatusCode(200);
+        response.setMessage("All rooms found");
+        response.setRoomList(roomDTOList);
+        return response;
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private RoomDTO withPhotoVariants(RoomDTO roomDTO) {
+        roomDTO.setRoomPhotoVariants(imageVariantCache.variantUrls(roomDTO.getRoomPhotoUrl()));
+        return roomDTO;
+    }
 }
@@ -1,21 +1,36 @@
 package com.hazratdev.HazratHotel.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazratdev.HazratHotel.datasource.ReadYourWrites;
 import com.hazratdev.HazratHotel.dto.LoginRequest;
 import com.hazratdev.HazratHotel.dto.Response;
 import com.hazratdev.HazratHotel.dto.UserDTO;
 import com.hazratdev.HazratHotel.entity.User;
 import com.hazratdev.HazratHotel.exception.OurException;
+import com.hazratdev.HazratHotel.exception.ServerBusyException;
+import com.hazratdev.HazratHotel.repo.BookingRepository;
 import com.hazratdev.HazratHotel.repo.UserRepository;
+import com.hazratdev.HazratHotel.security.UserSecurityVersions;
+import com.hazratdev.HazratHotel.service.interfac.IBookingService;
 import com.hazratdev.HazratHotel.service.interfac.IUserService;
 import com.hazratdev.HazratHotel.utils.JWTUtils;
+import com.hazratdev.HazratHotel.utils.JsonStreams;
 import com.hazratdev.HazratHotel.utils.Utils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class UserService implements IUserService {
@@ -23,6 +38,15 @@ public class UserService implements IUserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private IBookingService bookingService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -32,6 +56,15 @@ public class UserService implements IUserService {
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private UserSecurityVersions userSecurityVersions;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Override
     public Response register(User user){
         Response response = new Response();
@@ -42,14 +75,19 @@ public class UserService implements IUserService {
             if(userRepository.existsByEmail(user.getEmail())){
                 throw new OurException(user.getEmail() + " is already registered");
             }
+            user.setSecurityVersion(0);
             user.setPassword(passwordEncoder.encode(user.getPassword()));
             User savedUser = userRepository.save(user);
+            readYourWrites.recordWrite(savedUser.getEmail());
             UserDTO userDTO = Utils.mapUserEntityToUserDTO(savedUser);
             response.setStatusCode(200);
             response.setUser(userDTO);
         }catch (OurException e){
             response.setStatusCode(400);
             response.setMessage(e.getMessage());
+        }catch (ServerBusyException e){
+            response.setStatusCode(503);
+            response.setMessage(e.getMessage());
         }catch (Exception e){
             response.setStatusCode(500);
             response.setMessage("Error Occurred During USer Registration " + e.getMessage());
@@ -62,8 +100,8 @@ public class UserService implements IUserService {
     public Response login(LoginRequest loginRequest) {
         Response response = new Response();
         try {
-            authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
-            var user = userRepository.findByEmail(loginRequest.getEmail()).orElseThrow(()-> new OurException(loginRequest.getEmail() + " is not found"));
+            var authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
+            var user = (User) authentication.getPrincipal();
             var token = jwtUtils.generateToken(user);
             response.setStatusCode(200);
             response.setToken(token);
@@ -73,6 +111,9 @@ public class UserService implements IUserService {
         }catch (OurException e){
             response.setStatusCode(400);
             response.setMessage(e.getMessage());
+        }catch (ServerBusyException e){
+            response.setStatusCode(503);
+            response.setMessage(e.getMessage());
         }catch (Exception e){
             response.setStatusCode(500);
             response.setMessage("Error Occurred During USer Login " + e.getMessage());
@@ -82,6 +123,7 @@ public class UserService implements IUserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Response getAllUsers() {
        Response response = new Response();
 
@@ -99,11 +141,42 @@ public class UserService implements IUserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Response getUsersPage(Long afterId, Integer limit) {
+       Response response = new Response();
+
+       try{
+           int pageSize = Utils.pageSize(limit);
+           List<User> userList = userRepository.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(pageSize));
+           List<UserDTO> userDTOList = Utils.mapUserListEntityToUserListDTO(userList);
+           response.setStatusCode(200);
+           response.setMessage("Successfully retrieved users");
+           response.setUserList(userDTOList);
+           if (userList.size() == pageSize) {
+               response.setNextCursor(userList.get(userList.size() - 1).getId());
+           }
+       }catch (OurException e){
+           response.setStatusCode(500);
+           response.setMessage("Error Occurred During USer Retrieval " + e.getMessage());
+       }
+       return response;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllUsers(OutputStream outputStream) throws IOException {
+        try (Stream<User> users = userRepository.streamAllBy()) {
+            JsonStreams.writeArray(users, Utils::mapUserEntityToUserDTO, objectMapper, entityManager, outputStream);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Response getUserBookingHistory(String userId) {
 
         Response response = new Response();
         try {
-            User user = userRepository.findById(Long.valueOf(userId)).orElseThrow(()-> new OurException(userId + " is not found"));
+            User user = userRepository.findWithBookingsAndRoomsById(Long.valueOf(userId)).orElseThrow(()-> new OurException(userId + " is not found"));
             UserDTO userDTO = Utils.mapUserEntityToUserDTOPlusUserBookingsAndRoom(user);
             response.setStatusCode(200);
             response.setMessage("Successfully retrieved user booking history");
@@ -121,8 +194,17 @@ public class UserService implements IUserService {
         Response response = new Response();
 
         try{
-            userRepository.findById(Long.valueOf(userId)).orElseThrow(()-> new OurException(userId + " is not found"));
+            readYourWrites.onPrimary(() -> userRepository.findById(Long.valueOf(userId))).orElseThrow(()-> new OurException(userId + " is not found"));
+            // The user's bookings go with it through the cascade, so their rooms and codes are collected first.
+            List<Long> bookedRoomIds = new ArrayList<>();
+            List<String> confirmationCodes = new ArrayList<>();
+            for (Object[] booking : readYourWrites.onPrimary(() -> bookingRepository.findRoomIdsAndCodesByUserId(Long.valueOf(userId)))) {
+                if (booking[0] != null) bookedRoomIds.add((Long) booking[0]);
+                if (booking[1] != null) confirmationCodes.add((String) booking[1]);
+            }
             userRepository.deleteById(Long.valueOf(userId));
+            userSecurityVersions.markDeleted(Long.valueOf(userId));
+            bookingService.forgetDeletedBookings(bookedRoomIds, confirmationCodes);
             response.setStatusCode(200);
             response.setMessage("Successfully deleted user");
         }catch (OurException e){
@@ -0,0 +1,30 @@
+package com.hazratdev.HazratHotel.service.interfac;
+
+import com.hazratdev.HazratHotel.dto.BookingImportRow;
+import com.hazratdev.HazratHotel.dto.BookingRequest;
+import com.hazratdev.HazratHotel.dto.LockMetricsDTO;
+import com.hazratdev.HazratHotel.dto.Response;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface IBookingService {
+
+    Response saveBooking(Long roomId, Long userId, BookingRequest bookingRequest);
+
+    Response importBookings(List<BookingImportRow> rows);
+
+    Response findBookingByConfirmationCode(String confirmationCode);
+
+    Response getAllBookings();
+
+    Response cancelBooking(Long bookingId);
+
+    LockMetricsDTO getLockMetrics();
+
+    /**
+     * Updates the availability index and drops cached lookups after bookings were deleted without
+     * {@link #cancelBooking}, for example together with their user.
+     */
+    void forgetDeletedBookings(Collection<Long> roomIds, Collection<String> confirmationCodes);
+}
@@ -1,8 +1,11 @@
 package com.hazratdev.HazratHotel.service.interfac;
 
 import com.hazratdev.HazratHotel.dto.Response;
+import com.hazratdev.HazratHotel.service.RoomCatalogImporter;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
@@ -11,10 +14,20 @@ public interface IRoomService {
 
     Response addNewRoom(MultipartFile photo, String roomType, BigDecimal roomPrice, String description);
 
+    void importRooms(MultipartFile rooms, RoomCatalogImporter.Format format, MultipartFile photos, OutputStream progress) throws IOException;
+
     List<String> getAllRoomTypes();
 
+    byte[] getAllRoomTypesJson();
+
     Response getAllRooms();
 
+    byte[] getAllRoomsJson();
+
+    Response getRoomsPage(Long afterId, Integer limit);
+
+    void streamAllRooms(OutputStream outputStream) throws IOException;
+
     Response deleteRoom(Long roomId);
 
     Response updateRoom(Long roomId, String description, String roomType, BigDecimal roomPrice,MultipartFile photo);
@@ -24,4 +37,9 @@ public interface IRoomService {
     Response getAvailableRoomByDateAndType(LocalDate checkInDate, LocalDate checkOutDate, String roomType);
 
     Response getAvailableRooms();
+
+    Response getAvailabilityCalendar(LocalDate start, int days);
+
+    Response searchRooms(String text, String roomType, BigDecimal minPrice, BigDecimal maxPrice,
+                         LocalDate checkInDate, LocalDate checkOutDate);
 }
@@ -4,6 +4,9 @@ import com.hazratdev.HazratHotel.dto.LoginRequest;
 import com.hazratdev.HazratHotel.dto.Response;
 import com.hazratdev.HazratHotel.entity.User;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 public interface IUserService {
 
     Response register(User user);
@@ -12,6 +15,10 @@ public interface IUserService {
 
     Response getAllUsers();
 
+    Response getUsersPage(Long afterId, Integer limit);
+
+    void streamAllUsers(OutputStream outputStream) throws IOException;
+
     Response getUserBookingHistory(String userId);
 
     Response deleteUser(String userId);
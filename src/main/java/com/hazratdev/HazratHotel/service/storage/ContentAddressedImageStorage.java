@@ -0,0 +1,181 @@
+package com.hazratdev.HazratHotel.service.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Stores every image under the SHA-256 of its content, spread over two levels of subdirectories
+ * taken from the hash ({@code ab/cd/abcd...jpg}), so identical uploads share one file and no directory
+ * grows past a few thousand entries.
+ */
+@Component
+public class ContentAddressedImageStorage implements ImageStorage {
+
+    static final String STAGING_DIRECTORY = "staging";
+
+    @Value("${file.storage.location}")
+    private String storageDirectory;
+
+    @Override
+    public String store(InputStream content, String extension) throws IOException {
+        Path temp = newTempFile();
+        try {
+            MessageDigest digest = sha256();
+            try (DigestInputStream digestStream = new DigestInputStream(content, digest)) {
+                Files.copy(digestStream, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return place(temp, HexFormat.of().formatHex(digest.digest()), extension);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public String store(Path source, String extension) throws IOException {
+        MessageDigest digest = sha256();
+        try (DigestInputStream digestStream = new DigestInputStream(Files.newInputStream(source), digest)) {
+            digestStream.transferTo(OutputStream.nullOutputStream());
+        }
+        String hash = HexFormat.of().formatHex(digest.digest());
+        Path target = shardedPath(hash, extension);
+        if (Files.exists(target)) {
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            return location(target);
+        }
+
+        Path temp = newTempFile();
+        try {
+            Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+            return place(temp, hash, extension);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<Path> resolve(String relativePath) {
+        Path root = root();
+        try {
+            Path file = root.resolve(relativePath).normalize();
+            if (!file.startsWith(root) || file.equals(root) || !Files.isRegularFile(file)) {
+                return Optional.empty();
+            }
+            // uploads still being processed and derived variants are not stored images
+            if (file.startsWith(root.resolve(STAGING_DIRECTORY)) || file.startsWith(root.resolve(ImageVariantCache.VARIANTS_DIRECTORY))) {
+                return Optional.empty();
+            }
+            return Optional.of(file);
+        } catch (InvalidPathException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Path stagingDirectory() throws IOException {
+        return Files.createDirectories(root().resolve(STAGING_DIRECTORY));
+    }
+
+    @Override
+    public int deleteUnreferenced(Set<String> referencedLocations, Duration gracePeriod) throws IOException {
+        Path root = root();
+        if (!Files.isDirectory(root)) return 0;
+        Instant cutOff = Instant.now().minus(gracePeriod);
+        Set<String> referenced = new HashSet<>();
+        for (String reference : referencedLocations) {
+            try {
+                referenced.add(location(Path.of(reference)));
+            } catch (InvalidPathException e) {
+                // not a file location, nothing on disk can match it
+            }
+        }
+        Path variants = root.resolve(ImageVariantCache.VARIANTS_DIRECTORY);
+        AtomicInteger deleted = new AtomicInteger();
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile)
+                    .filter(file -> !file.startsWith(variants))
+                    .filter(file -> !referenced.contains(location(file)))
+                    .filter(file -> lastModified(file).isBefore(cutOff))
+                    .forEach(file -> {
+                        try {
+                            if (Files.deleteIfExists(file)) deleted.incrementAndGet();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        }
+        return deleted.get();
+    }
+
+    /**
+     * Moves the fully written temp file to its hashed location, or drops it if that content is already stored.
+     */
+    private String place(Path temp, String hash, String extension) throws IOException {
+        Path target = shardedPath(hash, extension);
+        if (Files.exists(target)) {
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            return location(target);
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+        }
+        return location(target);
+    }
+
+    private Path shardedPath(String hash, String extension) {
+        return root().resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash + "." + extension);
+    }
+
+    private Path newTempFile() throws IOException {
+        return stagingDirectory().resolve(UUID.randomUUID() + ".tmp");
+    }
+
+    private Path root() {
+        return Path.of(storageDirectory).toAbsolutePath().normalize();
+    }
+
+    private static String location(Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+    private static Instant lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant();
+        } catch (IOException e) {
+            return Instant.now();
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
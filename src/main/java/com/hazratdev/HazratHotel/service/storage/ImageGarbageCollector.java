@@ -0,0 +1,46 @@
+package com.hazratdev.HazratHotel.service.storage;
+
+import com.hazratdev.HazratHotel.repo.RoomRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Periodically deletes stored images no room points to any more. Files touched within the grace period
+ * are kept, which covers uploads whose room is not saved yet and content that was just deduplicated.
+ */
+@Component
+public class ImageGarbageCollector {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageGarbageCollector.class);
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Value("${file.storage.gc-grace-minutes:60}")
+    private long graceMinutes;
+
+    @Scheduled(initialDelayString = "${file.storage.gc-interval-ms:3600000}", fixedDelayString = "${file.storage.gc-interval-ms:3600000}")
+    public void collect() {
+        try {
+            Set<String> referenced = new HashSet<>(roomRepository.findAllPhotoUrls());
+            int deleted = imageStorage.deleteUnreferenced(referenced, Duration.ofMinutes(graceMinutes));
+            if (deleted > 0) {
+                log.info("Deleted {} unreferenced images", deleted);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Image garbage collection failed", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.hazratdev.HazratHotel.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Where room photos end up. The returned locations are what rooms keep in {@code roomPhotoUrl}.
+ */
+public interface ImageStorage {
+
+    /**
+     * Stores the content and returns its location. Identical content is stored only once.
+     */
+    String store(InputStream content, String extension) throws IOException;
+
+    /**
+     * Same as {@link #store(InputStream, String)} for content already on disk, the source file is left in place.
+     */
+    String store(Path source, String extension) throws IOException;
+
+    /**
+     * Looks up a stored file by its path relative to the storage root. Paths that leave the root,
+     * do not name a regular file or point into the staging or variants directories are not found.
+     */
+    Optional<Path> resolve(String relativePath);
+
+    /**
+     * Directory uploads wait in until {@link #store(Path, String)} has run in the background.
+     */
+    Path stagingDirectory() throws IOException;
+
+    /**
+     * Deletes stored files that are not in {@code referencedLocations} and were not written or reused
+     * within the grace period. Returns the number of deleted files.
+     */
+    int deleteUnreferenced(Set<String> referencedLocations, Duration gracePeriod) throws IOException;
+}
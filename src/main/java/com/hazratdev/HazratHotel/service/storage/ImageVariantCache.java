@@ -0,0 +1,264 @@
+package com.hazratdev.HazratHotel.service.storage;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Downscaled copies of stored images in a few fixed widths. Variants are made on first request, kept under
+ * {@code variants/<width>/} in the storage directory and evicted least recently used first once they take more
+ * than {@code file.storage.variants.max-bytes}.
+ */
+@Component
+public class ImageVariantCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantCache.class);
+
+    public static final List<Integer> WIDTHS = List.of(160, 480, 1200);
+
+    static final String VARIANTS_DIRECTORY = "variants";
+
+    @Value("${file.storage.location}")
+    private String storageDirectory;
+
+    @Value("${file.storage.variants.max-bytes:536870912}")
+    private long maxBytes = 536870912L;
+
+    /**
+     * Cached variant files in access order with their sizes, guarded by its own monitor.
+     */
+    private final LinkedHashMap<Path, Long> variants = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    /**
+     * Variants being generated right now, so concurrent requests for the same one wait for a single resize.
+     */
+    private final Map<Path, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Picks up the variants left by the previous run, oldest first, so eviction order survives restarts.
+     */
+    @PostConstruct
+    void loadExistingVariants() {
+        Path directory = variantsRoot();
+        if (!Files.isDirectory(directory)) return;
+        try (Stream<Path> files = Files.walk(directory)) {
+            List<Path> existing = files.filter(Files::isRegularFile)
+                    .sorted(Comparator.comparing(ImageVariantCache::lastModified))
+                    .toList();
+            List<Long> sizes = new ArrayList<>(existing.size());
+            for (Path file : existing) {
+                sizes.add(Files.size(file));
+            }
+            List<Path> evicted;
+            synchronized (variants) {
+                for (int i = 0; i < existing.size(); i++) {
+                    variants.put(existing.get(i), sizes.get(i));
+                    totalBytes += sizes.get(i);
+                }
+                evicted = evictOverflow();
+            }
+            delete(evicted);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Unable to load image variants from {}", directory, e);
+        }
+    }
+
+    /**
+     * Rounds a requested width up to the nearest bucket, widths above the largest bucket get the largest.
+     */
+    public static int bucket(int width) {
+        for (int bucket : WIDTHS) {
+            if (width <= bucket) return bucket;
+        }
+        return WIDTHS.get(WIDTHS.size() - 1);
+    }
+
+    /**
+     * Returns the variant of the stored file at {@code relativePath} for the bucket of {@code width}, making it if needed.
+     * Images that are already narrow enough, or that cannot be decoded, are returned as they are.
+     */
+    public Path variant(Path source, String relativePath, int width) {
+        int bucket = bucket(width);
+        Path target;
+        try {
+            target = variantsRoot().resolve(Integer.toString(bucket)).resolve(relativePath).normalize();
+        } catch (InvalidPathException e) {
+            return source;
+        }
+        if (!target.startsWith(variantsRoot())) return source;
+
+        boolean cached;
+        synchronized (variants) {
+            cached = variants.get(target) != null;
+        }
+        if (cached && Files.isRegularFile(target)) {
+            return target;
+        }
+
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> running = inFlight.putIfAbsent(target, created);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                return source;
+            }
+        }
+        try {
+            Path result = resize(source, target, bucket);
+            created.complete(result);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to make {}px variant of {}", bucket, source, e);
+            created.completeExceptionally(e);
+            return source;
+        } finally {
+            inFlight.remove(target, created);
+        }
+    }
+
+    /**
+     * Variant URLs of a stored image by width, for images under the storage directory.
+     */
+    public Map<Integer, String> variantUrls(String location) {
+        if (location == null) return null;
+        Path root = root();
+        Path file;
+        try {
+            file = Path.of(location).toAbsolutePath().normalize();
+        } catch (InvalidPathException e) {
+            return null;
+        }
+        if (!file.startsWith(root)) return null;
+        String relativePath = root.relativize(file).toString().replace('\\', '/');
+        Map<Integer, String> urls = new LinkedHashMap<>();
+        for (int width : WIDTHS) {
+            urls.put(width, "/images/" + relativePath + "?w=" + width);
+        }
+        return urls;
+    }
+
+    private Path resize(Path source, Path target, int width) throws IOException {
+        if (Files.isRegularFile(target)) {
+            remember(target);
+            return target;
+        }
+        BufferedImage original = ImageIO.read(source.toFile());
+        if (original == null || original.getWidth() <= width) {
+            return source;
+        }
+        int height = Math.max(1, (int) Math.round((double) original.getHeight() * width / original.getWidth()));
+        BufferedImage scaled = new BufferedImage(width, height,
+                original.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(original, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        String fileName = target.getFileName().toString();
+        String format = fileName.substring(fileName.lastIndexOf('.') + 1);
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(UUID.randomUUID() + ".tmp");
+        try {
+            if (!ImageIO.write(scaled, format, temp.toFile())) {
+                return source;
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        remember(target);
+        return target;
+    }
+
+    private void remember(Path variant) throws IOException {
+        long size = Files.size(variant);
+        Files.setLastModifiedTime(variant, FileTime.from(Instant.now()));
+        List<Path> evicted;
+        synchronized (variants) {
+            Long previous = variants.put(variant, size);
+            totalBytes += size - (previous == null ? 0 : previous);
+            evicted = evictOverflow();
+        }
+        delete(evicted);
+    }
+
+    /**
+     * Drops the least recently used entries until the cache fits, the files are deleted by the caller
+     * after leaving the monitor so no file I/O happens while holding it.
+     */
+    private List<Path> evictOverflow() {
+        List<Path> evicted = new ArrayList<>();
+        Iterator<Map.Entry<Path, Long>> eldest = variants.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Path, Long> entry = eldest.next();
+            eldest.remove();
+            totalBytes -= entry.getValue();
+            evicted.add(entry.getKey());
+        }
+        return evicted;
+    }
+
+    private static void delete(List<Path> evicted) {
+        for (Path file : evicted) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Unable to delete image variant {}", file, e);
+            }
+        }
+    }
+
+    long cachedBytes() {
+        synchronized (variants) {
+            return totalBytes;
+        }
+    }
+
+    private Path variantsRoot() {
+        return root().resolve(VARIANTS_DIRECTORY);
+    }
+
+    private Path root() {
+        return Path.of(storageDirectory).toAbsolutePath().normalize();
+    }
+
+    private static Instant lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.hazratdev.HazratHotel.service.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * An upload copied to the staging directory and being stored in the background. The staged file
+ * stays readable at {@link #getStagedLocation()} until the callbacks given to {@link #whenStored} have run.
+ */
+public class PendingImage {
+
+    private static final Logger log = LoggerFactory.getLogger(PendingImage.class);
+
+    private final String stagedLocation;
+    private final CompletableFuture<String> stored;
+    private final Runnable cleanUp;
+
+    public PendingImage(String stagedLocation, CompletableFuture<String> stored, Runnable cleanUp) {
+        this.stagedLocation = stagedLocation;
+        this.stored = stored;
+        this.cleanUp = cleanUp;
+    }
+
+    public String getStagedLocation() {
+        return stagedLocation;
+    }
+
+    /**
+     * Runs the callback with the final location once the image is stored, then removes the staged file.
+     * If storing or the callback fails the staged file is kept, since whatever points to it still needs it.
+     */
+    public void whenStored(Consumer<String> callback) {
+        stored.thenAccept(callback).whenComplete((ignored, error) -> {
+            if (error == null) {
+                cleanUp.run();
+            } else if (!stored.isCompletedExceptionally()) {
+                log.error("Handling stored image failed, staged file kept at {}", stagedLocation, error);
+            }
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package com.hazratdev.HazratHotel.utils;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+
+/**
+ * Day-indexed occupancy bitmap. Bit {@code i} stands for the day {@code origin + i},
+ * where the origin is the first day ever marked and moves back if an earlier day is marked.
+ * Not thread safe, callers guard it.
+ */
+public class DayBitmap {
+
+    private boolean empty = true;
+    private long origin;
+    private BitSet bits = new BitSet();
+
+    /**
+     * Marks every day from {@code from} to {@code to}, both inclusive.
+     */
+    public void set(LocalDate from, LocalDate to) {
+        long start = from.toEpochDay();
+        long end = to.toEpochDay();
+        if (end < start) return;
+        if (empty) {
+            origin = start;
+            empty = false;
+        } else if (start < origin) {
+            rebase(start);
+        }
+        bits.set(Math.toIntExact(start - origin), Math.toIntExact(end - origin) + 1);
+    }
+
+    /**
+     * Returns true if any day from {@code from} to {@code to}, both inclusive, is marked.
+     */
+    public boolean intersects(LocalDate from, LocalDate to) {
+        if (empty) return false;
+        long end = to.toEpochDay() - origin;
+        if (end < 0) return false;
+        long start = Math.max(from.toEpochDay() - origin, 0);
+        if (start > end || start > Integer.MAX_VALUE) return false;
+        int next = bits.nextSetBit((int) start);
+        return next >= 0 && next <= end;
+    }
+
+    /**
+     * Returns the marked days of the window starting at {@code from}, bit 0 being {@code from}.
+     */
+    public BitSet window(LocalDate from, int days) {
+        BitSet result = new BitSet(days);
+        if (empty) return result;
+        long offset = from.toEpochDay() - origin;
+        for (int i = bits.nextSetBit((int) Math.max(offset, 0));
+             i >= 0 && i < offset + days;
+             i = bits.nextSetBit(i + 1)) {
+            result.set((int) (i - offset));
+        }
+        return result;
+    }
+
+    public void clear() {
+        empty = true;
+        bits = new BitSet();
+    }
+
+    private void rebase(long newOrigin) {
+        int shift = Math.toIntExact(origin - newOrigin);
+        BitSet shifted = new BitSet(bits.length() + shift);
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            shifted.set(i + shift);
+        }
+        bits = shifted;
+        origin = newOrigin;
+    }
+}
@@ -1,7 +1,11 @@
 package com.hazratdev.HazratHotel.utils;
 
+import com.hazratdev.HazratHotel.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
@@ -11,25 +15,51 @@ import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class JWTUtils {
 
     private static final long EXPIRATION_TIME = 86400000;
 
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+    private static final String SECURITY_VERSION_CLAIM = "ver";
+
     private final SecretKey Key;
 
+    private final JwtParser parser;
+
+    /**
+     * Tokens whose signature was already checked, keyed by the exact token string.
+     */
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    @Value("${jwt.verified-token-cache.max-entries:10000}")
+    private int maxCachedTokens = 10000;
+
     public JWTUtils() {
         String secretString = "843567893696976453275974432697R634976R738467TR678T34865R6834R8763T478378637664538745673865783678548735687R3";
         byte[] keyBytes = Base64.getDecoder().decode(secretString.getBytes(StandardCharsets.UTF_8));
         this.Key = new SecretKeySpec(keyBytes, "HmacSHA256");
+        this.parser = Jwts.parserBuilder().setSigningKey(Key).build();
 
     }
 
     public String generateToken(UserDetails userDetails) {
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder();
+        if (userDetails instanceof User user) {
+            builder.claim(USER_ID_CLAIM, user.getId())
+                    .claim(ROLE_CLAIM, user.getRole())
+                    .claim(SECURITY_VERSION_CLAIM, user.getSecurityVersion());
+        }
+        return builder
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
@@ -38,20 +68,66 @@ public class JWTUtils {
 
     }
 
-    public String extractUsername(String token) {
-        return extractClaims(token, Claims::getSubject);
+    /**
+     * Verifies the signature and expiry of the token and returns its claims. A token verified before
+     * is answered from the cache without checking the signature again, until it expires.
+     */
+    public VerifiedToken verifyToken(String token) {
+        VerifiedToken cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (!cached.isExpired(System.currentTimeMillis())) {
+                return cached;
+            }
+            verifiedTokens.remove(token);
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        Number securityVersion = claims.get(SECURITY_VERSION_CLAIM, Number.class);
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(), claims.getIssuedAt(), claims.getExpiration(),
+                userId == null ? null : userId.longValue(),
+                claims.get(ROLE_CLAIM, String.class),
+                securityVersion == null ? null : securityVersion.intValue());
+        if (verifiedTokens.size() >= maxCachedTokens) {
+            evictCachedTokens();
+        }
+        verifiedTokens.put(token, verified);
+        return verified;
     }
 
-    private <T> T extractClaims(String token, Function<Claims, T> claimsTFunction) {
-        return claimsTFunction.apply(Jwts.parserBuilder().setSigningKey(Key).build().parseClaimsJws(token).getBody());
+    public String extractUsername(String token) {
+        return verifyToken(token).getSubject();
     }
 
     public boolean isValidToken(String token,UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return isValidToken(verifyToken(token), userDetails);
+    }
+
+    public boolean isValidToken(VerifiedToken token, UserDetails userDetails) {
+        return (token.getSubject().equals(userDetails.getUsername()) && !token.isExpired(System.currentTimeMillis()));
     }
 
     public boolean isTokenExpired(String token) {
-        return extractClaims(token,Claims::getExpiration).before(new Date());
+        return verifyToken(token).isExpired(System.currentTimeMillis());
+    }
+
+    /**
+     * Drops expired tokens, then an eighth of the rest if the cache is still full. Only one thread evicts at a time,
+     * the others keep going and may briefly push the cache over its limit.
+     */
+    private void evictCachedTokens() {
+        if (!evicting.compareAndSet(false, true)) return;
+        try {
+            long now = System.currentTimeMillis();
+            verifiedTokens.values().removeIf(token -> token.isExpired(now));
+            int toRemove = verifiedTokens.size() - maxCachedTokens + maxCachedTokens / 8;
+            Iterator<String> iterator = verifiedTokens.keySet().iterator();
+            while (toRemove-- > 0 && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
     }
 }
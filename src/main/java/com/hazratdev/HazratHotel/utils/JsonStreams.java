@@ -0,0 +1,38 @@
+package com.hazratdev.HazratHotel.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+public class JsonStreams {
+
+    private static final int CLEAR_EVERY = 500;
+
+    /**
+     * Writes the mapped entities as a JSON array while the stream is being read, clearing the
+     * persistence context regularly so memory stays flat however many rows there are.
+     */
+    public static <E> long writeArray(Stream<E> entities, Function<E, ?> mapper, ObjectMapper objectMapper,
+                                      EntityManager entityManager, OutputStream outputStream) throws IOException {
+        long written = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartArray();
+            Iterator<E> iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(mapper.apply(iterator.next()));
+                if (++written % CLEAR_EVERY == 0) {
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+        }
+        return written;
+    }
+}
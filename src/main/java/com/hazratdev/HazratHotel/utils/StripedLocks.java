@@ -0,0 +1,108 @@
+package com.hazratdev.HazratHotel.utils;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of locks that keys are hashed onto, so work on different keys rarely waits on each other
+ * while memory stays constant no matter how many keys exist. Also counts how often and how long callers waited.
+ */
+public class StripedLocks {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contendedAcquisitions = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0);
+
+    public StripedLocks(int stripes) {
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Runs the action while holding the stripe of the key.
+     */
+    public <T> T withLock(Object key, Supplier<T> action) {
+        ReentrantLock lock = lockFor(key);
+        acquire(lock);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the action while holding the stripes of all keys. Stripes are taken in index order, each once,
+     * so callers locking overlapping key sets can't deadlock each other or single-key callers.
+     */
+    public <T> T withLocks(Collection<?> keys, Supplier<T> action) {
+        int[] stripes = keys.stream().mapToInt(this::stripeOf).sorted().distinct().toArray();
+        int held = 0;
+        try {
+            for (int stripe : stripes) {
+                acquire(locks[stripe]);
+                held++;
+            }
+            return action.get();
+        } finally {
+            for (int i = held - 1; i >= 0; i--) {
+                locks[stripes[i]].unlock();
+            }
+        }
+    }
+
+    public int stripeCount() {
+        return locks.length;
+    }
+
+    public long getAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    public long getContendedAcquisitions() {
+        return contendedAcquisitions.sum();
+    }
+
+    public long getTotalWaitNanos() {
+        return waitNanos.sum();
+    }
+
+    public long getMaxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    private void acquire(ReentrantLock lock) {
+        acquisitions.increment();
+        if (lock.tryLock()) return;
+        long started = System.nanoTime();
+        lock.lock();
+        long waited = System.nanoTime() - started;
+        contendedAcquisitions.increment();
+        waitNanos.add(waited);
+        maxWaitNanos.accumulate(waited);
+    }
+
+    private ReentrantLock lockFor(Object key) {
+        return locks[stripeOf(key)];
+    }
+
+    private int stripeOf(Object key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return hash & mask;
+    }
+}
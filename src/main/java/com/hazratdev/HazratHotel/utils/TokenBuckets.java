@@ -0,0 +1,118 @@
+package com.hazratdev.HazratHotel.utils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per key, each holding up to {@code capacity} tokens and earning one back every {@code refillInterval}.
+ * A bucket is a single {@link AtomicLong} holding the time at which it will be full again, the generic cell rate
+ * algorithm's theoretical arrival time: taking a token pushes that time one interval further, and is refused when
+ * it would land more than {@code capacity} intervals ahead of now. Takes are a compare-and-set, without locks.
+ * <p>
+ * Keys are hashed onto a fixed number of stripes of at most {@code maxKeys / stripes} buckets each. A bucket that is
+ * full again is idle and dropped, as a fresh bucket behaves the same. A stripe that is still at its limit drops the
+ * bucket closest to full, so memory stays bounded whatever the number of keys, at the cost of letting the least
+ * throttled key start over. A take racing with the removal of its bucket may go uncounted.
+ */
+public class TokenBuckets {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final Map<String, AtomicLong>[] stripes;
+    private final int maxKeysPerStripe;
+    private final int mask;
+    private final LongSupplier nanoClock;
+
+    public TokenBuckets(int capacity, Duration refillInterval, int maxKeys, int stripes) {
+        this(capacity, refillInterval, maxKeys, stripes, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    TokenBuckets(int capacity, Duration refillInterval, int maxKeys, int stripes, LongSupplier nanoClock) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be at least 1");
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.intervalNanos = refillInterval.toNanos();
+        this.toleranceNanos = Math.multiplyExact(intervalNanos, capacity);
+        this.stripes = new Map[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.maxKeysPerStripe = Math.max(1, (maxKeys + size - 1) / size);
+        this.mask = size - 1;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes a token from the key's bucket. Returns 0 when one was taken, otherwise the nanoseconds until the
+     * bucket holds a token again.
+     */
+    public long tryTake(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = bucketOf(key, now);
+        while (true) {
+            long full = bucket.get();
+            long next = Math.max(full - now, 0) + intervalNanos;
+            if (next > toleranceNanos) {
+                return next - toleranceNanos;
+            }
+            if (bucket.compareAndSet(full, now + next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops every bucket that is full again.
+     */
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        for (Map<String, AtomicLong> stripe : stripes) {
+            stripe.values().removeIf(bucket -> bucket.get() - now <= 0);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private AtomicLong bucketOf(String key, long now) {
+        Map<String, AtomicLong> stripe = stripes[stripeOf(key)];
+        AtomicLong bucket = stripe.get(key);
+        if (bucket != null) return bucket;
+        if (stripe.size() >= maxKeysPerStripe) {
+            makeRoom(stripe, now);
+        }
+        return stripe.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    private void makeRoom(Map<String, AtomicLong> stripe, long now) {
+        stripe.values().removeIf(bucket -> bucket.get() - now <= 0);
+        if (stripe.size() < maxKeysPerStripe) return;
+        String fullest = null;
+        long earliest = Long.MAX_VALUE;
+        for (Map.Entry<String, AtomicLong> entry : stripe.entrySet()) {
+            long full = entry.getValue().get() - now;
+            if (full < earliest) {
+                earliest = full;
+                fullest = entry.getKey();
+            }
+        }
+        if (fullest != null) stripe.remove(fullest);
+    }
+
+    private int stripeOf(String key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return hash & mask;
+    }
+}
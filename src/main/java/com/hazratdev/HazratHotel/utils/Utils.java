@@ -6,7 +6,6 @@ import com.hazratdev.HazratHotel.dto.UserDTO;
 import com.hazratdev.HazratHotel.entity.Booking;
 import com.hazratdev.HazratHotel.entity.Room;
 import com.hazratdev.HazratHotel.entity.User;
-import java.security.SecureRandom;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -14,22 +13,15 @@ import java.util.stream.Collectors;
 
 public class Utils {
 
-    private static final String ALPHANUMERIC_STRING = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
-    private static final int DEFAULT_CONFIRMATION_CODE_LENGTH = 6;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
 
     /**
-     * Generates a random alphanumeric confirmation code of specified length.
-     * If length is less than or equal to 0, uses a default length of 6.
+     * Clamps a requested page size to 1..500, using 50 when none is given.
      */
-    public static String generateRandomConfirmationCode(int length) {
-        int codeLength = (length <= 0) ? DEFAULT_CONFIRMATION_CODE_LENGTH : length;
-        StringBuilder stringBuilder = new StringBuilder(codeLength);
-        for (int i = 0; i < codeLength; i++) {
-            int randomIndex = SECURE_RANDOM.nextInt(ALPHANUMERIC_STRING.length());
-            stringBuilder.append(ALPHANUMERIC_STRING.charAt(randomIndex));
-        }
-        return stringBuilder.toString();
+    public static int pageSize(Integer limit) {
+        if (limit == null) return DEFAULT_PAGE_SIZE;
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
     }
 
     /**
@@ -0,0 +1,65 @@
+package com.hazratdev.HazratHotel.utils;
+
+import java.util.Date;
+
+/**
+ * Claims of a JWT whose signature has been checked. Immutable, so one instance is shared by every request
+ * presenting the same token.
+ */
+public final class VerifiedToken {
+
+    private final String subject;
+    private final long issuedAtMillis;
+    private final long expirationMillis;
+    private final Long userId;
+    private final String role;
+    private final Integer securityVersion;
+
+    public VerifiedToken(String subject, Date issuedAt, Date expiration) {
+        this(subject, issuedAt, expiration, null, null, null);
+    }
+
+    public VerifiedToken(String subject, Date issuedAt, Date expiration, Long userId, String role, Integer securityVersion) {
+        this.subject = subject;
+        this.issuedAtMillis = issuedAt == null ? 0 : issuedAt.getTime();
+        this.expirationMillis = expiration == null ? Long.MAX_VALUE : expiration.getTime();
+        this.userId = userId;
+        this.role = role;
+        this.securityVersion = securityVersion;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public long getIssuedAtMillis() {
+        return issuedAtMillis;
+    }
+
+    public long getExpirationMillis() {
+        return expirationMillis;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Integer getSecurityVersion() {
+        return securityVersion;
+    }
+
+    /**
+     * True if the token carries everything needed to build the principal without loading the user.
+     */
+    public boolean carriesPrincipal() {
+        return subject != null && userId != null && role != null && securityVersion != null;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return expirationMillis < nowMillis;
+    }
+}
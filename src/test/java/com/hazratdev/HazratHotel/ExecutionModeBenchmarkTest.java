@@ -0,0 +1,153 @@
+package com.hazratdev.HazratHotel;
+
+import com.hazratdev.HazratHotel.dto.RoomDTO;
+import com.hazratdev.HazratHotel.entity.Room;
+import com.hazratdev.HazratHotel.repo.RoomRepository;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.NestedTestConfiguration;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Sends a burst of concurrent HTTP requests to an endpoint that reads a room and then waits on I/O, the way a request
+ * waits on a remote MySQL server, and prints throughput and p99 latency. It runs once against Tomcat's default pool
+ * of 200 platform threads and once with {@code spring.threads.virtual.enabled}, each in its own application on a
+ * random port. The virtual thread run needs Java 21 and is skipped on older JDKs. Only runs with {@code -Pbenchmark},
+ * at a small scale by default, the full comparison is
+ * {@code mvn -Pbenchmark test -Dtest=ExecutionModeBenchmarkTest -Dbenchmark.requests=20000 -Dbenchmark.io-millis=20}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=false",
+        "availability.index.enabled=false"
+})
+@Import(ExecutionModeBenchmarkTest.BlockingRoomController.class)
+@Tag("benchmark")
+class ExecutionModeBenchmarkTest {
+
+    private static final int ROOMS = 100;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Test
+    void platformThreads() throws Exception {
+        benchmark("platform(200)", port, roomRepository);
+    }
+
+    @Nested
+    @NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.OVERRIDE)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+            "spring.threads.virtual.enabled=true",
+            "availability.index.enabled=false"
+    })
+    @Import(BlockingRoomController.class)
+    @EnabledForJreRange(min = JRE.JAVA_21, disabledReason = "virtual threads need Java 21")
+    class VirtualThreads {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private RoomRepository roomRepository;
+
+        @Test
+        void virtualThreads() throws Exception {
+            benchmark("virtual", port, roomRepository);
+        }
+    }
+
+    /**
+     * Reads a room, then blocks the request thread for {@code benchmark.io-millis} without holding a connection.
+     */
+    @RestController
+    static class BlockingRoomController {
+
+        @Autowired
+        private RoomRepository roomRepository;
+
+        @GetMapping("/room/execution-mode-benchmark/{roomId}")
+        public RoomDTO blockingRead(@PathVariable Long roomId) throws InterruptedException {
+            RoomDTO room = roomRepository.findRoomDTOById(roomId).orElseThrow();
+            Thread.sleep(Long.getLong("benchmark.io-millis", 20));
+            return room;
+        }
+    }
+
+    private static void benchmark(String mode, int port, RoomRepository roomRepository) throws Exception {
+        int requests = Integer.getInteger("benchmark.requests", 500);
+        int clients = Integer.getInteger("benchmark.clients", 400);
+
+        List<Long> roomIds = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++) {
+            Room room = new Room();
+            room.setRoomType("Double");
+            room.setRoomPrice(BigDecimal.valueOf(100));
+            roomIds.add(roomRepository.save(room).getId());
+        }
+        HttpClient httpClient = HttpClient.newHttpClient();
+        String baseUrl = "http://127.0.0.1:" + port + "/room/execution-mode-benchmark/";
+
+        run(httpClient, baseUrl, roomIds, requests / 10, clients);
+        long started = System.nanoTime();
+        long[] latencies = run(httpClient, baseUrl, roomIds, requests, clients);
+        long elapsed = System.nanoTime() - started;
+
+        Arrays.sort(latencies);
+        long p99 = latencies[Math.min(requests - 1, (int) Math.ceil(requests * 0.99) - 1)];
+        System.out.printf("execution mode benchmark: %-14s requests=%d clients=%d throughput=%.0f req/s p99=%.1fms%n",
+                mode, requests, clients, requests / (elapsed / 1e9), p99 / 1e6);
+    }
+
+    /**
+     * Sends the requests with at most {@code clients} in flight and returns each request's latency in nanos.
+     */
+    private static long[] run(HttpClient httpClient, String baseUrl, List<Long> roomIds, int requests, int clients) throws Exception {
+        Semaphore inFlight = new Semaphore(clients);
+        AtomicInteger succeeded = new AtomicInteger();
+        long[] latencies = new long[requests];
+        List<CompletableFuture<?>> sent = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            int index = i;
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + roomIds.get(ThreadLocalRandom.current().nextInt(roomIds.size()))))
+                    .GET().build();
+            inFlight.acquire();
+            long start = System.nanoTime();
+            sent.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        latencies[index] = System.nanoTime() - start;
+                        if (response != null && response.statusCode() == 200) succeeded.incrementAndGet();
+                        inFlight.release();
+                    }));
+        }
+        CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new)).join();
+        assertEquals(requests, succeeded.get());
+        return latencies;
+    }
+}
@@ -0,0 +1,50 @@
+package com.hazratdev.HazratHotel.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Requests forwarded by a proxy on a trusted address are throttled by the client address in X-Forwarded-For,
+ * not by the proxy's own address.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.forward-headers-strategy=native",
+        "auth.throttle.ip.burst=2", "auth.throttle.ip.per-minute=1",
+        "auth.throttle.email.burst=1000", "auth.throttle.email.per-minute=1000"
+})
+class AuthControllerThrottleTest {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void forwardedClientsHaveTheirOwnBuckets() throws Exception {
+        assertNotEquals(TOO_MANY_REQUESTS, login("203.0.113.1"));
+        assertNotEquals(TOO_MANY_REQUESTS, login("203.0.113.1"));
+        assertEquals(TOO_MANY_REQUESTS, login("203.0.113.1"));
+
+        assertNotEquals(TOO_MANY_REQUESTS, login("203.0.113.2"));
+    }
+
+    private int login(String clientAddress) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", clientAddress)
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\": \"nobody@example.com\", \"password\": \"wrong\"}"))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,97 @@
+package com.hazratdev.HazratHotel.controller;
+
+import com.hazratdev.HazratHotel.entity.Booking;
+import com.hazratdev.HazratHotel.entity.Room;
+import com.hazratdev.HazratHotel.entity.User;
+import com.hazratdev.HazratHotel.repo.BookingRepository;
+import com.hazratdev.HazratHotel.repo.RoomRepository;
+import com.hazratdev.HazratHotel.repo.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingControllerAccessTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.now().plusYears(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void usersBookAndCancelOnlyForThemselves() throws Exception {
+        Long roomId = saveRoom();
+        User guest = saveUser("USER");
+        User other = saveUser("USER");
+        User admin = saveUser("ADMIN");
+
+        mockMvc.perform(book(roomId, other.getId(), "", 0).with(user(guest)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(book(roomId, other.getId(), "", 0).with(user(admin)))
+                .andExpect(status().isOk());
+        Booking othersBooking = bookingRepository.findByUserId(other.getId()).get(0);
+
+        mockMvc.perform(book(roomId, guest.getId(), "\"id\": " + othersBooking.getId() + ",", 10).with(user(guest)))
+                .andExpect(status().isOk());
+        assertEquals(1, bookingRepository.findByUserId(guest.getId()).size());
+        Booking unchanged = bookingRepository.findByUserId(other.getId()).get(0);
+        assertEquals(othersBooking.getId(), unchanged.getId());
+        assertEquals(CHECK_IN, unchanged.getCheckInDate());
+
+        mockMvc.perform(delete("/bookings/cancel/" + othersBooking.getId()).with(user(guest)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/bookings/cancel/987654321").with(user(guest)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/bookings/cancel/" + othersBooking.getId()).with(user(other)))
+                .andExpect(status().isOk());
+    }
+
+    private MockHttpServletRequestBuilder book(Long roomId, Long userId, String extraFields, int daysLater) {
+        LocalDate checkIn = CHECK_IN.plusDays(daysLater);
+        return post("/bookings/book-room/" + roomId + "/" + userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{" + extraFields + "\"checkInDate\": \"" + checkIn + "\", \"checkOutDate\": \"" + checkIn.plusDays(2)
+                        + "\", \"numOfAdults\": 2, \"numOfChildren\": 0}");
+    }
+
+    private Long saveRoom() {
+        Room room = new Room();
+        room.setRoomType("Double");
+        room.setRoomPrice(BigDecimal.valueOf(90));
+        return roomRepository.save(room).getId();
+    }
+
+    private User saveUser(String role) {
+        User user = new User();
+        user.setName(role);
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPhoneNumber("0100000000");
+        user.setPassword("not-used");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+}
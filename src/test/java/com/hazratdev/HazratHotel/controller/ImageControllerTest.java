@@ -0,0 +1,109 @@
+package com.hazratdev.HazratHotel.controller;
+
+import com.hazratdev.HazratHotel.service.storage.ContentAddressedImageStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ImageControllerTest {
+
+    private static final byte[] IMAGE = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path tempDir;
+
+    private Path storageRoot;
+    private MockMvc mockMvc;
+    private String imagePath;
+    private String eTag;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storageRoot = tempDir.resolve("images");
+        ContentAddressedImageStorage storage = new ContentAddressedImageStorage();
+        ReflectionTestUtils.setField(storage, "storageDirectory", storageRoot.toString());
+        Path stored = Path.of(storage.store(new ByteArrayInputStream(IMAGE), "jpg"));
+        imagePath = "/images/" + storageRoot.relativize(stored).toString().replace('\\', '/');
+        eTag = "\"" + stored.getFileName().toString().replace(".jpg", "") + "\"";
+
+        ImageController controller = new ImageController();
+        ReflectionTestUtils.setField(controller, "imageStorage", storage);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void servesWholeFileWithImmutableCaching() throws Exception {
+        mockMvc.perform(get(imagePath))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"))
+                .andExpect(content().bytes(IMAGE));
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws Exception {
+        mockMvc.perform(get(imagePath).header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void servesSingleRanges() throws Exception {
+        mockMvc.perform(get(imagePath).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/20"))
+                .andExpect(content().bytes("2345".getBytes(StandardCharsets.US_ASCII)));
+
+        mockMvc.perform(get(imagePath).header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes("hij".getBytes(StandardCharsets.US_ASCII)));
+
+        mockMvc.perform(get(imagePath).header(HttpHeaders.RANGE, "bytes=40-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */20"));
+    }
+
+    @Test
+    void staleIfRangeGetsWholeFile() throws Exception {
+        mockMvc.perform(get(imagePath).header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(IMAGE));
+    }
+
+    @Test
+    void pathsOutsideTheStorageRootAreNotFound() throws Exception {
+        Files.writeString(tempDir.resolve("secret.txt"), "secret");
+        mockMvc.perform(get("/images/../secret.txt")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/images/%2e%2e/secret.txt")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/images/missing.jpg")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void stagedUploadsAreNotFound() throws Exception {
+        Files.writeString(Files.createDirectories(storageRoot.resolve("staging")).resolve("upload.jpg"), "processing");
+        mockMvc.perform(get("/images/staging/upload.jpg")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/images/staging/../staging/upload.jpg")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void variantsAreNotServedDirectly() throws Exception {
+        Files.writeString(Files.createDirectories(storageRoot.resolve("variants/400")).resolve("photo.jpg"), "variant");
+        mockMvc.perform(get("/images/variants/400/photo.jpg")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/images/variants/400/photo.jpg").param("w", "200")).andExpect(status().isNotFound());
+    }
+}
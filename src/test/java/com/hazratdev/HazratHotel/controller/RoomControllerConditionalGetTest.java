@@ -0,0 +1,92 @@
+package com.hazratdev.HazratHotel.controller;
+
+import com.hazratdev.HazratHotel.entity.Room;
+import com.hazratdev.HazratHotel.repo.RoomRepository;
+import com.hazratdev.HazratHotel.service.RoomCatalog;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RoomControllerConditionalGetTest {
+
+    private static final String REVALIDATE = "max-age=0, must-revalidate, public";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void unchangedCatalogIsNotModifiedWithoutQueries() throws Exception {
+        Long roomId = save("Suite");
+        roomCatalog.refresh();
+
+        String eTag = mockMvc.perform(get("/room/all"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, REVALIDATE))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue(eTag.startsWith("W/\""), eTag);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        for (String path : new String[]{"/room/all", "/room/all?limit=5", "/room/types", "/room/room-by-id/" + roomId}) {
+            mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, REVALIDATE))
+                    .andExpect(content().bytes(new byte[0]));
+        }
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(get("/room/room-by-id/" + roomId).header(HttpHeaders.IF_NONE_MATCH, "W/\"1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        save("Family");
+        roomCatalog.refresh();
+        String changed = mockMvc.perform(get("/room/types").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, changed);
+    }
+
+    @Test
+    void errorsAreNotCacheable() throws Exception {
+        mockMvc.perform(get("/room/room-by-id/987654"))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertNotEquals(REVALIDATE, result.getResponse().getHeader(HttpHeaders.CACHE_CONTROL)));
+    }
+
+    private Long save(String roomType) {
+        Room room = new Room();
+        room.setRoomType(roomType);
+        room.setRoomPrice(BigDecimal.valueOf(120));
+        return roomRepository.save(room).getId();
+    }
+}
@@ -0,0 +1,44 @@
+package com.hazratdev.HazratHotel.controller;
+
+import com.hazratdev.HazratHotel.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Room imports are refused by the filter chain unless an admin sends them, even though the rest of
+ * {@code /room/**} is public.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class RoomImportAccessTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void onlyAdminsReachTheImport() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "rooms.txt", "text/plain", "roomType\n".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/room/import").file(file)).andExpect(status().isForbidden());
+        mockMvc.perform(multipart("/room/import").file(file).with(user(withRole("USER")))).andExpect(status().isForbidden());
+        mockMvc.perform(multipart("/room/import").file(file).with(user(withRole("ADMIN")))).andExpect(status().isBadRequest());
+    }
+
+    private static User withRole(String role) {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(role.toLowerCase() + "@example.com");
+        user.setRole(role);
+        return user;
+    }
+}
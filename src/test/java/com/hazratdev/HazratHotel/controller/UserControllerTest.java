@@ -0,0 +1,82 @@
+package com.hazratdev.HazratHotel.controller;
+
+import com.hazratdev.HazratHotel.entity.User;
+import com.hazratdev.HazratHotel.repo.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void usersReadOnlyTheirOwnProfileAndBookings() throws Exception {
+        User guest = saveUser("USER");
+        User other = saveUser("USER");
+        User admin = saveUser("ADMIN");
+
+        for (String path : new String[]{"/users/get-by-id/", "/users/get-user-bookings/"}) {
+            mockMvc.perform(get(path + guest.getId()).with(user(guest))).andExpect(status().isOk());
+            mockMvc.perform(get(path + other.getId()).with(user(guest))).andExpect(status().isForbidden());
+            mockMvc.perform(get(path + "not-a-number").with(user(guest))).andExpect(status().isForbidden());
+            mockMvc.perform(get(path + other.getId()).with(user(admin))).andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void pagesFollowTheCursorToTheLastPage() throws Exception {
+        User admin = saveUser("ADMIN");
+        Long first = saveUser("USER").getId();
+        Long second = saveUser("USER").getId();
+        Long third = saveUser("USER").getId();
+        Long beforeFirst = admin.getId();
+
+        mockMvc.perform(get("/users/all").param("after", beforeFirst.toString()).param("limit", "2").with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userList", hasSize(2)))
+                .andExpect(jsonPath("$.userList[0].id").value(first))
+                .andExpect(jsonPath("$.userList[1].id").value(second))
+                .andExpect(jsonPath("$.nextCursor").value(second));
+        mockMvc.perform(get("/users/all").param("after", second.toString()).param("limit", "2").with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userList", hasSize(1)))
+                .andExpect(jsonPath("$.userList[0].id").value(third))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        // A full last page still hands out a cursor, the page after it is empty and has none.
+        mockMvc.perform(get("/users/all").param("after", second.toString()).param("limit", "1").with(user(admin)))
+                .andExpect(jsonPath("$.userList", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor").value(third));
+        mockMvc.perform(get("/users/all").param("after", third.toString()).param("limit", "0").with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userList", hasSize(0)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    private User saveUser(String role) {
+        User user = new User();
+        user.setName(role);
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPhoneNumber("0100000000");
+        user.setPassword("not-used");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+}
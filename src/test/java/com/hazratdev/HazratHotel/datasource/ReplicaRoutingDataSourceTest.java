@@ -0,0 +1,191 @@
+package com.hazratdev.HazratHotel.datasource;
+
+import com.hazratdev.HazratHotel.dto.BookingRequest;
+import com.hazratdev.HazratHotel.entity.Room;
+import com.hazratdev.HazratHotel.entity.User;
+import com.hazratdev.HazratHotel.repo.BookingRepository;
+import com.hazratdev.HazratHotel.repo.RoomRepository;
+import com.hazratdev.HazratHotel.repo.UserRepository;
+import com.hazratdev.HazratHotel.service.interfac.IBookingService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Two H2 databases stand in for the primary and a replica. Replication is a copy of the primary taken by
+ * {@link #replicate()}, so anything written afterwards shows which database served a read.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "datasource.replica.urls=" + ReplicaRoutingDataSourceTest.REPLICA_URL,
+        "datasource.replica.lag-query=SELECT seconds_behind_source FROM replica_status",
+        "datasource.replica.lag-check-interval-ms=3600000",
+        "availability.index.enabled=false"
+})
+class ReplicaRoutingDataSourceTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private IBookingService bookingService;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsReadTheReplicaWhileItKeepsUp() {
+        save("Suite");
+        replicate();
+        long replicated = roomRepository.count();
+        save("Penthouse");
+
+        assertEquals(replicated, roomRepository.count());
+        assertEquals(replicated + 1, (long) new TransactionTemplate(transactionManager).execute(status -> roomRepository.count()));
+        assertEquals(replicated + 1, (long) readYourWrites.onPrimary(() -> roomRepository.count()));
+        assertFalse(readOnly(() -> roomRepository.findAll().stream().map(Room::getRoomType).toList()).contains("Penthouse"));
+
+        replica.update("UPDATE replica_status SET seconds_behind_source = 30");
+        routingDataSource.checkReplicas();
+        assertEquals(30L, routingDataSource.getReplicaLagSeconds().get("replica-1"));
+        assertEquals(replicated + 1, roomRepository.count());
+
+        replica.update("UPDATE replica_status SET seconds_behind_source = NULL");
+        routingDataSource.checkReplicas();
+        assertEquals(replicated + 1, roomRepository.count());
+
+        replica.update("UPDATE replica_status SET seconds_behind_source = 1");
+        routingDataSource.checkReplicas();
+        assertEquals(replicated, roomRepository.count());
+
+        replica.execute("DROP TABLE replica_status");
+        routingDataSource.checkReplicas();
+        assertEquals(-1L, routingDataSource.getReplicaLagSeconds().get("replica-1"));
+        assertEquals(replicated + 1, roomRepository.count());
+    }
+
+    @Test
+    void usersReadTheirOwnWrites() {
+        replicate();
+        long replicated = roomRepository.count();
+        save("Family");
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("guest@example.com", null, List.of()));
+        assertEquals(replicated, roomRepository.count());
+        readYourWrites.recordWrite();
+        assertEquals(replicated + 1, roomRepository.count());
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("other@example.com", null, List.of()));
+        assertEquals(replicated, roomRepository.count());
+    }
+
+    @Test
+    void guestsReadBookingsAnAdminMadeForThem() {
+        User guest = new User();
+        guest.setEmail("booked-guest@example.com");
+        guest.setName("Guest");
+        guest.setPassword("secret");
+        guest.setPhoneNumber("5550100");
+        guest.setRole("USER");
+        guest = userRepository.save(guest);
+        save("Double");
+        Long roomId = roomRepository.findAll().stream().filter(room -> room.getRoomType().equals("Double")).findFirst().orElseThrow().getId();
+        replicate();
+        long replicated = bookingRepository.count();
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("booking-admin@example.com", null, List.of()));
+        BookingRequest request = new BookingRequest();
+        request.setCheckInDate(LocalDate.now().plusDays(3));
+        request.setCheckOutDate(LocalDate.now().plusDays(5));
+        request.setNumOfAdults(1);
+        assertEquals(200, bookingService.saveBooking(roomId, guest.getId(), request).getStatusCode());
+        assertEquals(replicated + 1, bookingRepository.count());
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("booked-guest@example.com", null, List.of()));
+        assertEquals(replicated + 1, bookingRepository.count());
+    }
+
+    @Test
+    void hibernateReleasesConnectionsAfterEachTransaction() {
+        assertEquals(PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION,
+                entityManagerFactory.getProperties().get("hibernate.connection.handling_mode"));
+    }
+
+    private void save(String roomType) {
+        Room room = new Room();
+        room.setRoomType(roomType);
+        room.setRoomPrice(BigDecimal.valueOf(100));
+        roomRepository.save(room);
+    }
+
+    private <T> T readOnly(Supplier<T> reads) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(status -> reads.get());
+    }
+
+    /**
+     * Replaces the replica with a copy of the primary, caught up.
+     */
+    private void replicate() {
+        String script = tempDir.resolve("primary.sql").toString();
+        new JdbcTemplate(primaryDataSource).execute("SCRIPT TO '" + script + "'");
+        replica.execute("DROP ALL OBJECTS");
+        replica.execute("RUNSCRIPT FROM '" + script + "'");
+        replica.execute("CREATE TABLE replica_status (seconds_behind_source BIGINT)");
+        replica.update("INSERT INTO replica_status VALUES (0)");
+        routingDataSource.checkReplicas();
+    }
+}
@@ -0,0 +1,78 @@
+package com.hazratdev.HazratHotel.load;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Thread-safe latency histogram with buckets growing by a factor of about 1.19 from 10 microseconds to
+ * over a minute, which keeps percentiles within 10% of the true value.
+ */
+public class LatencyHistogram {
+
+    private static final double MIN_MICROS = 10;
+    private static final double GROWTH = Math.pow(2, 0.25);
+    private static final int BUCKETS = 96;
+    private static final long[] REPORTED_MILLIS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000};
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos, boolean error) {
+        double micros = nanos / 1000.0;
+        int bucket = micros <= MIN_MICROS ? 0 : (int) Math.ceil(Math.log(micros / MIN_MICROS) / Math.log(GROWTH));
+        counts.incrementAndGet(Math.min(bucket, BUCKETS - 1));
+        total.incrementAndGet();
+        if (error) errors.incrementAndGet();
+        maxNanos.accumulate(nanos);
+    }
+
+    public long count() {
+        return total.get();
+    }
+
+    public long errors() {
+        return errors.get();
+    }
+
+    /**
+     * Upper bound of the bucket holding the given percentile, in milliseconds.
+     */
+    public double percentileMillis(double percentile) {
+        long rank = (long) Math.ceil(total.get() * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank && seen > 0) {
+                return Math.min(upperMicros(i) / 1000.0, maxNanos.get() / 1e6);
+            }
+        }
+        return maxNanos.get() / 1e6;
+    }
+
+    public double maxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+
+    /**
+     * Cumulative share of requests at or under 1, 2, 5 ... 1000 ms, for printing.
+     */
+    public String cumulativeBuckets() {
+        StringBuilder line = new StringBuilder();
+        long all = Math.max(1, total.get());
+        for (long millis : REPORTED_MILLIS) {
+            long under = 0;
+            for (int i = 0; i < BUCKETS && upperMicros(i) <= millis * 1000.0 + 1e-6; i++) {
+                under += counts.get(i);
+            }
+            line.append(String.format("<=%dms:%.1f%% ", millis, 100.0 * under / all));
+        }
+        return line.toString().trim();
+    }
+
+    private static double upperMicros(int bucket) {
+        return MIN_MICROS * Math.pow(GROWTH, bucket);
+    }
+}
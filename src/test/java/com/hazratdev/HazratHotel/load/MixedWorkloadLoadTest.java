@@ -0,0 +1,224 @@
+package com.hazratdev.HazratHotel.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazratdev.HazratHotel.service.RoomAvailabilityIndex;
+import com.hazratdev.HazratHotel.service.RoomCatalog;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives login, availability search, booking history and room listing requests through the real HTTP stack against
+ * H2 in MySQL mode filled by {@link TestDataGenerator}. Each scenario runs alone first, then all of them mixed, and
+ * each run prints throughput, latency percentiles, a cumulative latency histogram and SQL statements per request.
+ * Only runs with {@code -Pbenchmark}, at a small scale by default, a larger one is for example
+ * {@code mvn -Pbenchmark test -Dtest=MixedWorkloadLoadTest -Dload.users=50000 -Dload.rooms=5000 -Dload.bookings=1000000 -Dload.seconds=30}.
+ * Ten million bookings need a heap of several gigabytes for H2, set through {@code -DargLine=-Xmx8g}. Login throttling
+ * is lifted, as every simulated user connects from the same address.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "auth.throttle.ip.burst=1000000", "auth.throttle.ip.per-minute=1000000",
+        "auth.throttle.email.burst=1000000", "auth.throttle.email.per-minute=1000000"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Tag("benchmark")
+class MixedWorkloadLoadTest {
+
+    private static final int TOKENS = 32;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private TestDataGenerator.Dataset dataset;
+    private final List<String> tokens = new ArrayList<>();
+    private final List<Long> tokenUserIds = new ArrayList<>();
+
+    @BeforeAll
+    void generateData() throws Exception {
+        int users = Integer.getInteger("load.users", 500);
+        int rooms = Integer.getInteger("load.rooms", 200);
+        long bookings = Long.getLong("load.bookings", 5_000L);
+
+        long started = System.nanoTime();
+        dataset = new TestDataGenerator(jdbcTemplate, passwordEncoder, 7).generate(users, rooms, bookings, LocalDate.now());
+        availabilityIndex.rebuild();
+        roomCatalog.refresh();
+        System.out.printf("load test data: users=%d rooms=%d bookings=%d days=%s..%s generated in %.1fs%n",
+                users, rooms, bookings, dataset.firstDay(), dataset.lastDay(), (System.nanoTime() - started) / 1e9);
+
+        for (int i = 0; i < Math.min(TOKENS, users); i++) {
+            JsonNode body = send(login(i));
+            tokens.add(body.get("token").asText());
+            tokenUserIds.add(dataset.firstUserId() + i);
+        }
+    }
+
+    @Test
+    void scenariosAloneAndMixed() throws Exception {
+        int threads = Integer.getInteger("load.threads", 8);
+        Duration duration = Duration.ofSeconds(Long.getLong("load.seconds", 2L));
+
+        Map<String, Supplier<HttpRequest>> scenarios = new LinkedHashMap<>();
+        scenarios.put("login", () -> login(ThreadLocalRandom.current().nextInt(dataset.users())));
+        scenarios.put("availability", this::availabilitySearch);
+        scenarios.put("booking-history", this::bookingHistory);
+        scenarios.put("room-listing", this::roomListing);
+
+        for (Map.Entry<String, Supplier<HttpRequest>> scenario : scenarios.entrySet()) {
+            Map<String, LatencyHistogram> result = run(Map.of(scenario.getKey(), scenario.getValue()), threads, duration);
+            assertEquals(0, result.get(scenario.getKey()).errors(), scenario.getKey() + " had failed requests");
+        }
+
+        Map<String, LatencyHistogram> mixed = run(scenarios, threads, duration);
+        for (Map.Entry<String, LatencyHistogram> entry : mixed.entrySet()) {
+            assertTrue(entry.getValue().count() > 0, entry.getKey() + " never ran in the mix");
+            assertEquals(0, entry.getValue().errors(), entry.getKey() + " had failed requests in the mix");
+        }
+    }
+
+    /**
+     * Keeps {@code threads} clients busy for the duration, each picking one of the scenarios at random per request,
+     * and prints one report line per scenario plus one for the statements of the whole run.
+     */
+    private Map<String, LatencyHistogram> run(Map<String, Supplier<HttpRequest>> scenarios, int threads, Duration duration)
+            throws Exception {
+        List<String> names = new ArrayList<>(scenarios.keySet());
+        Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+        names.forEach(name -> histograms.put(name, new LatencyHistogram()));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ExecutorService clients = Executors.newFixedThreadPool(threads);
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            running.add(clients.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    String name = names.get(ThreadLocalRandom.current().nextInt(names.size()));
+                    HttpRequest request = scenarios.get(name).get();
+                    long sent = System.nanoTime();
+                    boolean error;
+                    try {
+                        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        error = response.statusCode() != 200;
+                    } catch (Exception e) {
+                        error = true;
+                    }
+                    histograms.get(name).record(System.nanoTime() - sent, error);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : running) {
+            future.get();
+        }
+        clients.shutdown();
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long statements = statistics.getPrepareStatementCount();
+
+        String label = names.size() == 1 ? "alone" : "mixed";
+        long requests = 0;
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            requests += histogram.count();
+            System.out.printf("load %s %-16s requests=%d errors=%d throughput=%.0f req/s p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms%n",
+                    label, entry.getKey(), histogram.count(), histogram.errors(), histogram.count() / seconds,
+                    histogram.percentileMillis(50), histogram.percentileMillis(95), histogram.percentileMillis(99),
+                    histogram.maxMillis());
+            System.out.printf("load %s %-16s histogram %s%n", label, entry.getKey(), histogram.cumulativeBuckets());
+        }
+        System.out.printf("load %s %-16s statements=%d statements/request=%.2f%n",
+                label, String.join("+", names), statements, requests == 0 ? 0 : (double) statements / requests);
+        return histograms;
+    }
+
+    private HttpRequest login(int user) {
+        String body = "{\"email\":\"" + dataset.email(user) + "\",\"password\":\"" + TestDataGenerator.PASSWORD + "\"}";
+        return HttpRequest.newBuilder(uri("/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest availabilitySearch() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate checkIn = LocalDate.now().plusDays(random.nextInt(120));
+        LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(5));
+        String roomType = dataset.roomTypes().get(random.nextInt(dataset.roomTypes().size())).replace(" ", "%20");
+        return HttpRequest.newBuilder(uri("/room/available-rooms-by-date-and-type?checkInDate=" + checkIn
+                + "&checkOutDate=" + checkOut + "&roomType=" + roomType)).GET().build();
+    }
+
+    private HttpRequest bookingHistory() {
+        int pick = ThreadLocalRandom.current().nextInt(tokens.size());
+        return HttpRequest.newBuilder(uri("/users/get-user-bookings/" + tokenUserIds.get(pick)))
+                .header("Authorization", "Bearer " + tokens.get(pick))
+                .GET().build();
+    }
+
+    private HttpRequest roomListing() {
+        long after = dataset.firstRoomId() - 1 + ThreadLocalRandom.current().nextInt(dataset.rooms());
+        return HttpRequest.newBuilder(uri("/room/all?after=" + after + "&limit=50")).GET().build();
+    }
+
+    private JsonNode send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        JsonNode body = objectMapper.readTree(response.body());
+        assertEquals(200, body.path("statusCode").asInt(), response.body());
+        return body;
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,189 @@
+package com.hazratdev.HazratHotel.load;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the users, rooms and bookings tables with synthetic data through JDBC batches, fast enough for
+ * millions of bookings. Bookings never overlap within a room and follow a hotel-like shape: most stays are one
+ * to three nights, check ins cluster on Fridays and Saturdays, summer and December are busier, and a minority of
+ * regular guests make most of the bookings. Every user's password is {@link #PASSWORD}, user 1 of a fresh
+ * dataset is an admin.
+ */
+public class TestDataGenerator {
+
+    public static final String PASSWORD = "password";
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final String[] ROOM_TYPES = {"Single", "Double", "Twin", "Suite", "Deluxe Suite", "Family"};
+    private static final int[] ROOM_TYPE_WEIGHTS = {20, 35, 15, 15, 5, 10};
+    private static final int[] ROOM_TYPE_PRICES = {60, 90, 95, 180, 260, 150};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String passwordHash;
+    private final Random random;
+
+    public TestDataGenerator(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordHash = passwordEncoder.encode(PASSWORD);
+        this.random = new Random(seed);
+    }
+
+    public record Dataset(long firstUserId, int users, long firstRoomId, int rooms, long bookings,
+                          LocalDate firstDay, LocalDate lastDay, List<String> roomTypes) {
+
+        public String email(int user) {
+            return "user" + (firstUserId + user) + "@example.com";
+        }
+    }
+
+    /**
+     * Inserts the given number of users, rooms and bookings next to whatever is already in the tables.
+     * Bookings start a year before {@code today} and run forward as far as the booking count needs.
+     */
+    public Dataset generate(int users, int rooms, long bookings, LocalDate today) {
+        long firstUserId = nextId("users");
+        long firstRoomId = nextId("rooms");
+        long firstBookingId = nextId("bookins");
+
+        insertUsers(firstUserId, users);
+        insertRooms(firstRoomId, rooms);
+        LocalDate firstDay = today.minusDays(365);
+        LocalDate lastDay = insertBookings(firstBookingId, bookings, firstUserId, users, firstRoomId, rooms, firstDay);
+
+        restartIdentity("users", firstUserId + users);
+        restartIdentity("rooms", firstRoomId + rooms);
+        restartIdentity("bookins", firstBookingId + bookings);
+        return new Dataset(firstUserId, users, firstRoomId, rooms, bookings, firstDay, lastDay, List.of(ROOM_TYPES));
+    }
+
+    private void insertUsers(long firstId, int users) {
+        List<Object[]> rows = new ArrayList<>(Math.min(users, BATCH_SIZE));
+        for (int i = 0; i < users; i++) {
+            long id = firstId + i;
+            rows.add(new Object[]{id, "Guest " + id, "user" + id + "@example.com", passwordHash,
+                    String.format("01%09d", id), id == 1 ? "ADMIN" : "USER", 0});
+            if (rows.size() == BATCH_SIZE || i == users - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email, password, phone_number, role, security_version) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    private void insertRooms(long firstId, int rooms) {
+        List<Object[]> rows = new ArrayList<>(Math.min(rooms, BATCH_SIZE));
+        for (int i = 0; i < rooms; i++) {
+            int type = weighted(ROOM_TYPE_WEIGHTS);
+            BigDecimal price = BigDecimal.valueOf(ROOM_TYPE_PRICES[type] + random.nextInt(40));
+            rows.add(new Object[]{firstId + i, ROOM_TYPES[type], price, ROOM_TYPES[type] + " room " + (firstId + i)});
+            if (rows.size() == BATCH_SIZE || i == rooms - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO rooms (id, room_type, room_price, room_description) VALUES (?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    /**
+     * Walks every room's calendar from {@code firstDay}, alternating gaps and stays, and hands the bookings out
+     * round robin so all rooms reach about the same date. Returns the last booked day.
+     */
+    private LocalDate insertBookings(long firstId, long bookings, long firstUserId, int users, long firstRoomId,
+                                     int rooms, LocalDate firstDay) {
+        LocalDate[] nextFree = new LocalDate[rooms];
+        for (int room = 0; room < rooms; room++) {
+            nextFree[room] = firstDay.plusDays(random.nextInt(7));
+        }
+        LocalDate lastDay = firstDay;
+        List<Object[]> rows = new ArrayList<>((int) Math.min(bookings, BATCH_SIZE));
+        for (long i = 0; i < bookings; i++) {
+            int room = (int) (i % rooms);
+            LocalDate checkIn = nextFree[room].plusDays(gapDays(nextFree[room]));
+            if (random.nextInt(10) < 3) {
+                checkIn = nextWeekendDay(checkIn);
+            }
+            LocalDate checkOut = checkIn.plusDays(stayNights());
+            nextFree[room] = checkOut.plusDays(1);
+            if (checkOut.isAfter(lastDay)) lastDay = checkOut;
+
+            int adults = 1 + random.nextInt(2);
+            int children = random.nextInt(10) < 2 ? 1 + random.nextInt(2) : 0;
+            long userId = firstUserId + regularGuest(users);
+            long id = firstId + i;
+            rows.add(new Object[]{id, Date.valueOf(checkIn), Date.valueOf(checkOut), adults, children, adults + children,
+                    "G" + Long.toString(id, 36).toUpperCase(), userId, firstRoomId + room});
+            if (rows.size() == BATCH_SIZE || i == bookings - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO bookins (id, check_in_date, check_out_date, num_of_adults, num_of_children, total_num_of_guest, booking_confirmation_code, user_id, room_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        return lastDay;
+    }
+
+    /**
+     * Nights per stay: mostly one to three, occasionally a week or two.
+     */
+    private int stayNights() {
+        int nights = 1;
+        while (nights < 14 && random.nextDouble() < 0.45) nights++;
+        return nights;
+    }
+
+    /**
+     * Empty days before the next stay, shorter in the busy season.
+     */
+    private int gapDays(LocalDate from) {
+        double mean = switch (from.getMonth()) {
+            case JUNE, JULY, AUGUST, DECEMBER -> 1.0;
+            case JANUARY, FEBRUARY, NOVEMBER -> 4.0;
+            default -> 2.5;
+        };
+        return (int) Math.round(-mean * Math.log(1 - random.nextDouble()));
+    }
+
+    private static LocalDate nextWeekendDay(LocalDate day) {
+        LocalDate result = day;
+        while (result.getDayOfWeek() != DayOfWeek.FRIDAY && result.getDayOfWeek() != DayOfWeek.SATURDAY) {
+            result = result.plusDays(1);
+        }
+        return result;
+    }
+
+    /**
+     * Skews bookings towards the first users, so a few regulars have long booking histories.
+     */
+    private int regularGuest(int users) {
+        double skewed = Math.pow(random.nextDouble(), 3);
+        return Math.min(users - 1, (int) (skewed * users));
+    }
+
+    private int weighted(int[] weights) {
+        int total = 0;
+        for (int weight : weights) total += weight;
+        int pick = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            pick -= weights[i];
+            if (pick < 0) return i;
+        }
+        return weights.length - 1;
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    /**
+     * Explicit ids don't move an identity column, so point it past the generated rows for later JPA inserts.
+     */
+    private void restartIdentity(String table, long next) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+    }
+}
@@ -0,0 +1,44 @@
+package com.hazratdev.HazratHotel.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * With the management port configured the way production runs, metrics are only served on that port.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "management.server.port=0", "management.server.address=127.0.0.1"
+})
+@AutoConfigureObservability(tracing = false)
+class ManagementPortTest {
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void prometheusIsOnlyServedOnTheManagementPort() throws Exception {
+        assertNotEquals(200, get(port, "/actuator/prometheus"));
+        assertEquals(200, get(managementPort, "/actuator/prometheus"));
+    }
+
+    private int get(int port, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,41 @@
+package com.hazratdev.HazratHotel.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusEndpointExposesServiceRepositoryPoolAndHibernateMetrics() throws Exception {
+        mockMvc.perform(get("/room/all")).andExpect(status().isOk());
+        mockMvc.perform(get("/room/room-by-id/987654")).andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("hotel_service_calls_seconds_bucket{exception=\"none\",method=\"getAllRoomsJson\",service=\"RoomService\",status=\"200\""),
+                        containsString("hotel_service_responses_total{method=\"getAllRoomsJson\",service=\"RoomService\",status=\"200\"} 1.0"),
+                        containsString("hotel_service_responses_total{method=\"getRoomById\",service=\"RoomService\",status=\"400\"} 1.0"),
+                        containsString("spring_data_repository_invocations_seconds_count{"),
+                        containsString("http_server_requests_seconds_bucket{"),
+                        containsString("hikaricp_connections_active{"),
+                        containsString("hibernate_statements_total{"),
+                        containsString("hotel_booking_lock_acquisitions_total"))));
+    }
+}
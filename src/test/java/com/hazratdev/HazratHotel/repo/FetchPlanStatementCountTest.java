@@ -0,0 +1,119 @@
+package com.hazratdev.HazratHotel.repo;
+
+import com.hazratdev.HazratHotel.dto.BookingDTO;
+import com.hazratdev.HazratHotel.dto.RoomDTO;
+import com.hazratdev.HazratHotel.dto.UserDTO;
+import com.hazratdev.HazratHotel.entity.Booking;
+import com.hazratdev.HazratHotel.entity.Room;
+import com.hazratdev.HazratHotel.entity.User;
+import com.hazratdev.HazratHotel.utils.Utils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * The booking history and room-with-bookings read paths must cost one SQL statement however many bookings there are.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class FetchPlanStatementCountTest {
+
+    private static final int BOOKINGS = 12;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private Statistics statistics;
+    private Long userId;
+    private Long roomId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setName("Guest");
+        user.setEmail("guest@example.com");
+        user.setPassword("secret");
+        user.setPhoneNumber("0123456789");
+        user.setRole("USER");
+        entityManager.persist(user);
+
+        Room sharedRoom = null;
+        for (int i = 0; i < BOOKINGS; i++) {
+            Room room = new Room();
+            room.setRoomType("Double");
+            room.setRoomPrice(BigDecimal.valueOf(100));
+            entityManager.persist(room);
+            if (sharedRoom == null) sharedRoom = room;
+
+            Booking booking = new Booking();
+            booking.setCheckInDate(LocalDate.now().plusDays(i * 3L + 1));
+            booking.setCheckOutDate(LocalDate.now().plusDays(i * 3L + 2));
+            booking.setNumOfAdults(1);
+            booking.setBookingConfirmationCode("CODE" + i);
+            booking.setUser(user);
+            booking.setRoom(i % 2 == 0 ? sharedRoom : room);
+            entityManager.persist(booking);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        userId = user.getId();
+        roomId = sharedRoom.getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void bookingHistoryRunsOneStatement() {
+        User user = userRepository.findWithBookingsAndRoomsById(userId).orElseThrow();
+        UserDTO userDTO = Utils.mapUserEntityToUserDTOPlusUserBookingsAndRoom(user);
+
+        assertEquals(BOOKINGS, userDTO.getBookings().size());
+        userDTO.getBookings().forEach(booking -> assertNotNull(booking.getRoom().getRoomType()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void roomWithBookingsRunsOneStatement() {
+        Room room = roomRepository.findWithBookingsById(roomId).orElseThrow();
+        RoomDTO roomDTO = Utils.mapRoomEntityToRoomDTOPlusBookings(room);
+
+        assertEquals(BOOKINGS / 2, roomDTO.getBookings().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void bookingByConfirmationCodeRunsOneStatement() {
+        Booking booking = bookingRepository.findByBookingConfirmationCode("CODE3").orElseThrow();
+        BookingDTO bookingDTO = Utils.mapBookingEntityToBookingDTOPlusBookedRooms(booking, true);
+
+        assertEquals("guest@example.com", bookingDTO.getUser().getEmail());
+        assertNotNull(bookingDTO.getRoom().getRoomType());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
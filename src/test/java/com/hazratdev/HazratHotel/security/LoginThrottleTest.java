@@ -0,0 +1,46 @@
+package com.hazratdev.HazratHotel.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginThrottleTest {
+
+    private LoginThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        throttle = new LoginThrottle();
+        ReflectionTestUtils.setField(throttle, "ipBurst", 20);
+        ReflectionTestUtils.setField(throttle, "ipPerMinute", 10);
+        ReflectionTestUtils.setField(throttle, "emailBurst", 2);
+        ReflectionTestUtils.setField(throttle, "emailPerMinute", 2);
+        ReflectionTestUtils.setField(throttle, "maxKeys", 100);
+    }
+
+    @Test
+    void limitsAttemptsPerEmailAcrossAddresses() {
+        throttle.createBuckets();
+
+        assertEquals(0, throttle.tryAttempt("10.0.0.1", "guest@example.com"));
+        assertEquals(0, throttle.tryAttempt("10.0.0.2", " Guest@Example.com "));
+        assertTrue(throttle.tryAttempt("10.0.0.3", "guest@example.com") > 0);
+        assertEquals(0, throttle.tryAttempt("10.0.0.3", "other@example.com"));
+    }
+
+    @Test
+    void refusesRatesOfZero() {
+        ReflectionTestUtils.setField(throttle, "emailPerMinute", 0);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, throttle::createBuckets);
+        assertEquals("auth.throttle.email.per-minute must be at least 1, was 0", e.getMessage());
+
+        ReflectionTestUtils.setField(throttle, "emailPerMinute", 2);
+        ReflectionTestUtils.setField(throttle, "ipPerMinute", 0);
+        assertThrows(IllegalStateException.class, throttle::createBuckets);
+    }
+}
@@ -0,0 +1,136 @@
+package com.hazratdev.HazratHotel.security;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sends a burst of logins together with a steady stream of light requests through a pool of request threads, once
+ * hashing on the request threads and once through {@link BoundedPasswordEncoder}, prints the latency of both kinds of
+ * request and checks that only the bounded run keeps concurrent hashes to the CPU count. Only runs with
+ * {@code -Pbenchmark}, at a small scale by default, a larger one is for example
+ * {@code mvn -Pbenchmark test -Dtest=PasswordHashingBenchmarkTest -Dbenchmark.logins=200 -Dbenchmark.requests=5000}.
+ */
+@Tag("benchmark")
+class PasswordHashingBenchmarkTest {
+
+    private static final int REQUEST_THREADS = 32;
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Test
+    void compareHashingOnRequestThreadsAndBoundedExecutor() throws Exception {
+        int logins = Integer.getInteger("benchmark.logins", 16);
+        int requests = Integer.getInteger("benchmark.requests", 400);
+        int cpus = Runtime.getRuntime().availableProcessors();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(10);
+        String hash = bcrypt.encode(PASSWORD);
+
+        CountingEncoder inline = new CountingEncoder(bcrypt);
+        run("request threads", inline, hash, logins, requests);
+        CountingEncoder pooled = new CountingEncoder(bcrypt);
+        try (BoundedPasswordEncoder bounded = new BoundedPasswordEncoder(pooled, cpus, logins)) {
+            run("bounded executor", bounded, hash, logins, requests);
+        }
+
+        System.out.printf("most concurrent hashes: request threads=%d bounded executor=%d cpus=%d%n",
+                inline.mostActive.get(), pooled.mostActive.get(), cpus);
+        assertTrue(pooled.mostActive.get() <= cpus);
+        if (logins > cpus) {
+            assertTrue(inline.mostActive.get() > cpus);
+        }
+    }
+
+    private void run(String mode, PasswordEncoder encoder, String hash, int logins, int requests) throws Exception {
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        List<Future<Long>> loginLatencies = new ArrayList<>();
+        List<Future<Long>> requestLatencies = new ArrayList<>();
+        long started = System.nanoTime();
+        for (int i = 0; i < logins; i++) {
+            long submitted = System.nanoTime();
+            loginLatencies.add(requestThreads.submit(() -> {
+                assertTrue(encoder.matches(PASSWORD, hash));
+                return System.nanoTime() - submitted;
+            }));
+        }
+        for (int i = 0; i < requests; i++) {
+            long submitted = System.nanoTime();
+            requestLatencies.add(requestThreads.submit(() -> {
+                lightRequest();
+                return System.nanoTime() - submitted;
+            }));
+            Thread.sleep(1);
+        }
+        long[] loginNanos = collect(loginLatencies);
+        long[] requestNanos = collect(requestLatencies);
+        long elapsed = System.nanoTime() - started;
+        requestThreads.shutdown();
+
+        System.out.printf("%-16s logins p50=%6.1fms p99=%6.1fms | other requests p50=%6.1fms p99=%6.1fms max=%6.1fms | %.1fs%n",
+                mode, percentile(loginNanos, 0.50), percentile(loginNanos, 0.99),
+                percentile(requestNanos, 0.50), percentile(requestNanos, 0.99), percentile(requestNanos, 1.0), elapsed / 1e9);
+    }
+
+    /**
+     * A little CPU work and a short wait, like a request reading a few rows from the database.
+     */
+    private static void lightRequest() throws InterruptedException {
+        int[] values = ThreadLocalRandom.current().ints(2_000).toArray();
+        Arrays.sort(values);
+        Thread.sleep(2);
+    }
+
+    /**
+     * Records the most hashes that ran at the same time.
+     */
+    private static class CountingEncoder implements PasswordEncoder {
+
+        private final PasswordEncoder delegate;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger mostActive = new AtomicInteger();
+
+        CountingEncoder(PasswordEncoder delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return delegate.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            mostActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                return delegate.matches(rawPassword, encodedPassword);
+            } finally {
+                active.decrementAndGet();
+            }
+        }
+    }
+
+    private static long[] collect(List<Future<Long>> latencies) throws Exception {
+        long[] nanos = new long[latencies.size()];
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] = latencies.get(i).get();
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+}
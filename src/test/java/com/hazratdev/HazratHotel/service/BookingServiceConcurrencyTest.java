@@ -0,0 +1,152 @@
+package com.hazratdev.HazratHotel.service;
+
+import com.hazratdev.HazratHotel.datasource.ReadYourWrites;
+import com.hazratdev.HazratHotel.dto.BookingRequest;
+import com.hazratdev.HazratHotel.dto.LockMetricsDTO;
+import com.hazratdev.HazratHotel.dto.Response;
+import com.hazratdev.HazratHotel.entity.Room;
+import com.hazratdev.HazratHotel.entity.User;
+import com.hazratdev.HazratHotel.repo.BookingRepository;
+import com.hazratdev.HazratHotel.repo.RoomRepository;
+import com.hazratdev.HazratHotel.repo.UserRepository;
+import com.hazratdev.HazratHotel.service.impl.BookingService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires overlapping booking requests at a handful of rooms from many threads and checks that no room ends up
+ * with two bookings covering the same day. With {@code -Pbenchmark} a larger run also prints how contended the
+ * room locks were, for example {@code mvn -Pbenchmark test -Dtest=BookingServiceConcurrencyTest -Dbenchmark.requests=20000}.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false"
+})
+@Import({BookingService.class, RoomAvailabilityIndex.class, ConfirmationCodeGenerator.class, ReadYourWrites.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingServiceConcurrencyTest {
+
+    private static final int ROOMS = 8;
+    private static final int THREADS = 32;
+    private static final int REQUESTS = 600;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void concurrentRequestsNeverDoubleBookARoom() throws Exception {
+        bookConcurrently(REQUESTS);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void measureRoomLockContention() throws Exception {
+        int requests = Integer.getInteger("benchmark.requests", 4_000);
+        LockMetricsDTO before = bookingService.getLockMetrics();
+        int accepted = bookConcurrently(requests);
+        LockMetricsDTO after = bookingService.getLockMetrics();
+        System.out.printf("booking stress: requests=%d accepted=%d contended=%d maxWait=%.2fms%n", requests, accepted,
+                after.getContendedAcquisitions() - before.getContendedAcquisitions(), after.getMaxWaitMillis());
+    }
+
+    /**
+     * Books random stays in fresh rooms from many threads, checks that no two accepted stays of a room overlap and
+     * returns how many were accepted.
+     */
+    private int bookConcurrently(int requests) throws Exception {
+        long acquisitionsBefore = bookingService.getLockMetrics().getAcquisitions();
+        List<Long> roomIds = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++) {
+            Room room = new Room();
+            room.setRoomType("Double");
+            room.setRoomPrice(BigDecimal.valueOf(100));
+            roomIds.add(roomRepository.save(room).getId());
+        }
+        User user = new User();
+        user.setName("Guest");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("secret");
+        user.setPhoneNumber("0123456789");
+        user.setRole("USER");
+        Long userId = userRepository.save(user).getId();
+
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Response>> results = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            results.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                BookingRequest booking = new BookingRequest();
+                booking.setCheckInDate(firstDay.plusDays(random.nextInt(90)));
+                booking.setCheckOutDate(booking.getCheckInDate().plusDays(1 + random.nextInt(4)));
+                booking.setNumOfAdults(1);
+                start.await();
+                return bookingService.saveBooking(roomIds.get(random.nextInt(ROOMS)), userId, booking);
+            }));
+        }
+        start.countDown();
+
+        int accepted = 0;
+        int rejected = 0;
+        for (Future<Response> result : results) {
+            int statusCode = result.get().getStatusCode();
+            if (statusCode == 200) accepted++;
+            else if (statusCode == 400) rejected++;
+        }
+        executor.shutdown();
+
+        assertEquals(requests, accepted + rejected);
+        assertTrue(accepted > 0 && rejected > 0);
+
+        List<Object[]> ranges = new ArrayList<>();
+        for (Long roomId : roomIds) {
+            for (Object[] range : bookingRepository.findBookingRangesByRoomId(roomId)) {
+                ranges.add(new Object[]{roomId, range[0], range[1]});
+            }
+        }
+        assertEquals(accepted, ranges.size());
+        Map<Object, List<Object[]>> byRoom = ranges.stream().collect(Collectors.groupingBy(range -> range[0]));
+        for (List<Object[]> roomRanges : byRoom.values()) {
+            roomRanges.sort(Comparator.comparing(range -> (LocalDate) range[1]));
+            for (int i = 1; i < roomRanges.size(); i++) {
+                LocalDate previousCheckOut = (LocalDate) roomRanges.get(i - 1)[2];
+                LocalDate checkIn = (LocalDate) roomRanges.get(i)[1];
+                assertTrue(checkIn.isAfter(previousCheckOut), "double booking of room " + roomRanges.get(i)[0]);
+            }
+        }
+
+        assertEquals(acquisitionsBefore + requests, bookingService.getLockMetrics().getAcquisitions());
+        return accepted;
+    }
+}
@@ -0,0 +1,150 @@
+package com.hazratdev.HazratHotel.service;
+
+import com.hazratdev.HazratHotel.datasource.ReadYourWrites;
+import com.hazratdev.HazratHotel.dto.BookingImportResult;
+import com.hazratdev.HazratHotel.dto.BookingImportRow;
+import com.hazratdev.HazratHotel.dto.BookingRequest;
+import com.hazratdev.HazratHotel.dto.Response;
+import com.hazratdev.HazratHotel.load.TestDataGenerator;
+import com.hazratdev.HazratHotel.repo.BookingRepository;
+import com.hazratdev.HazratHotel.service.impl.BookingService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Checks that {@link BookingService#importBookings} rejects the rows the single booking path would reject. With
+ * {@code -Pbenchmark} it also compares booking one row per request through {@link BookingService#saveBooking} with
+ * the same number of rows through the import, at a small scale by default, a larger one is
+ * {@code mvn -Pbenchmark test -Dtest=BulkBookingImportBenchmarkTest -Dbenchmark.rows=10000}.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false"
+})
+@Import({BookingService.class, RoomAvailabilityIndex.class, ConfirmationCodeGenerator.class, ReadYourWrites.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BulkBookingImportBenchmarkTest {
+
+    private static final int ROOMS = 100;
+    private static final int USERS = 20;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importRejectsTheRowsASingleBookingWouldReject() {
+        int rowCount = 2 * ROOMS;
+        TestDataGenerator.Dataset dataset = generate();
+        long bookingsBefore = bookingRepository.count();
+        long acquisitionsBefore = bookingService.getLockMetrics().getAcquisitions();
+
+        List<BookingImportRow> bulkRows = rows(dataset, rowCount, LocalDate.now().plusDays(1));
+        Response bulk = bookingService.importBookings(bulkRows);
+
+        assertEquals(200, bulk.getStatusCode(), bulk.getMessage());
+        assertEquals(rowCount + " of " + rowCount + " bookings imported", bulk.getMessage());
+        assertEquals(bookingsBefore + rowCount, bookingRepository.count());
+
+        BookingImportRow taken = bulkRows.get(0);
+        List<BookingImportRow> conflicting = List.of(
+                row(taken.getRoomId(), taken.getUserId(), taken.getCheckOutDate(), taken.getCheckOutDate().plusDays(1)),
+                row(dataset.firstRoomId(), dataset.firstUserId(), LocalDate.now().minusDays(30), LocalDate.now().minusDays(28)),
+                row(dataset.firstRoomId(), dataset.firstUserId(), LocalDate.now().minusDays(29), LocalDate.now().minusDays(27)),
+                row(dataset.firstRoomId() + ROOMS, dataset.firstUserId(), LocalDate.now().minusDays(10), LocalDate.now().minusDays(9)),
+                row(dataset.firstRoomId(), dataset.firstUserId() + USERS, LocalDate.now().minusDays(10), LocalDate.now().minusDays(9)),
+                row(dataset.firstRoomId(), dataset.firstUserId(), LocalDate.now().minusDays(5), LocalDate.now().minusDays(6)));
+        Response mixed = bookingService.importBookings(conflicting);
+
+        List<BookingImportResult> results = mixed.getBookingImportResults();
+        assertEquals("1 of 6 bookings imported", mixed.getMessage());
+        assertEquals("Room not available for selected date range", results.get(0).getMessage());
+        assertEquals(200, results.get(1).getStatusCode());
+        assertNotNull(results.get(1).getBookingConfirmationCode());
+        assertEquals("Room not available for selected date range", results.get(2).getMessage());
+        assertEquals("Room not found", results.get(3).getMessage());
+        assertEquals("User not found", results.get(4).getMessage());
+        assertEquals("Check in date must come before check out date", results.get(5).getMessage());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        assertEquals(bookingsBefore + rowCount + 1, bookingRepository.count());
+        assertEquals(acquisitionsBefore + ROOMS + 2, bookingService.getLockMetrics().getAcquisitions());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void compareSingleBookingsWithBulkImport() {
+        int rowCount = Integer.getInteger("benchmark.rows", 1_000);
+        TestDataGenerator.Dataset dataset = generate();
+        long bookingsBefore = bookingRepository.count();
+
+        LocalDate singleStart = LocalDate.now().plusDays(1);
+        long started = System.nanoTime();
+        for (BookingImportRow row : rows(dataset, rowCount, singleStart)) {
+            BookingRequest booking = new BookingRequest();
+            booking.setCheckInDate(row.getCheckInDate());
+            booking.setCheckOutDate(row.getCheckOutDate());
+            booking.setNumOfAdults(row.getNumOfAdults());
+            assertEquals(200, bookingService.saveBooking(row.getRoomId(), row.getUserId(), booking).getStatusCode());
+        }
+        double singleSeconds = (System.nanoTime() - started) / 1e9;
+
+        LocalDate bulkStart = singleStart.plusDays(4L * (rowCount / ROOMS + 1));
+        List<BookingImportRow> bulkRows = rows(dataset, rowCount, bulkStart);
+        started = System.nanoTime();
+        Response bulk = bookingService.importBookings(bulkRows);
+        double bulkSeconds = (System.nanoTime() - started) / 1e9;
+
+        assertEquals(rowCount + " of " + rowCount + " bookings imported", bulk.getMessage());
+        assertEquals(bookingsBefore + 2L * rowCount, bookingRepository.count());
+        System.out.printf("bulk import: rows=%d single=%.0f rows/s bulk=%.0f rows/s speedup=%.1fx%n",
+                rowCount, rowCount / singleSeconds, rowCount / bulkSeconds, singleSeconds / bulkSeconds);
+    }
+
+    private TestDataGenerator.Dataset generate() {
+        return new TestDataGenerator(jdbcTemplate, new BCryptPasswordEncoder(4), 11).generate(USERS, ROOMS, 0, LocalDate.now());
+    }
+
+    /**
+     * Two night stays handed out round robin over the rooms, with a free day between stays of the same room.
+     */
+    private static List<BookingImportRow> rows(TestDataGenerator.Dataset dataset, int count, LocalDate start) {
+        List<BookingImportRow> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate checkIn = start.plusDays(4L * (i / ROOMS));
+            rows.add(row(dataset.firstRoomId() + i % ROOMS, dataset.firstUserId() + i % USERS, checkIn, checkIn.plusDays(2)));
+        }
+        return rows;
+    }
+
+    private static BookingImportRow row(Long roomId, Long userId, LocalDate checkIn, LocalDate checkOut) {
+        BookingImportRow row = new BookingImportRow();
+        row.setRoomId(roomId);
+        row.setUserId(userId);
+        row.setCheckInDate(checkIn);
+        row.setCheckOutDate(checkOut);
+        row.setNumOfAdults(2);
+        return row;
+    }
+}
@@ -0,0 +1,98 @@
+package com.hazratdev.HazratHotel.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfirmationCodeGeneratorTest {
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+    @Test
+    void codesAreUniqueAndIncreasingAcrossThreads() throws Exception {
+        ConfirmationCodeGenerator generator = new ConfirmationCodeGenerator();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<String>>> batches = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            batches.add(executor.submit(() -> {
+                List<String> codes = new ArrayList<>();
+                for (int i = 0; i < 50_000; i++) codes.add(generator.next());
+                return codes;
+            }));
+        }
+        Set<String> all = new HashSet<>();
+        for (Future<List<String>> batch : batches) {
+            List<String> codes = batch.get();
+            for (int i = 1; i < codes.size(); i++) {
+                assertTrue(codes.get(i - 1).compareTo(codes.get(i)) < 0);
+            }
+            all.addAll(codes);
+        }
+        executor.shutdown();
+        assertEquals(200_000, all.size());
+    }
+
+    @Test
+    void nodesNeverShareCodes() {
+        ConfirmationCodeGenerator first = new ConfirmationCodeGenerator();
+        ConfirmationCodeGenerator second = new ConfirmationCodeGenerator();
+        ReflectionTestUtils.setField(second, "nodeId", 1);
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(codes.add(first.next()));
+            assertTrue(codes.add(second.next()));
+        }
+
+        ReflectionTestUtils.setField(second, "nodeId", 1024);
+        assertThrows(IllegalStateException.class, second::checkNodeId);
+    }
+
+    @Test
+    void checkCharacterCatchesTyposBeforeAnyQuery() {
+        String code = new ConfirmationCodeGenerator().next();
+        assertEquals(ConfirmationCodeGenerator.CODE_LENGTH, code.length());
+        assertEquals(code, ConfirmationCodeGenerator.lookupKey(code));
+
+        for (int position = 0; position < code.length(); position++) {
+            for (char replacement : ALPHABET.toCharArray()) {
+                if (replacement == code.charAt(position)) continue;
+                String typo = code.substring(0, position) + replacement + code.substring(position + 1);
+                assertNull(ConfirmationCodeGenerator.lookupKey(typo), typo);
+            }
+        }
+        int swapsCaught = 0;
+        int swaps = 0;
+        for (int position = 0; position < code.length() - 1; position++) {
+            if (code.charAt(position) == code.charAt(position + 1)) continue;
+            swaps++;
+            String swapped = code.substring(0, position) + code.charAt(position + 1) + code.charAt(position) + code.substring(position + 2);
+            if (ConfirmationCodeGenerator.lookupKey(swapped) == null) swapsCaught++;
+        }
+        assertTrue(swapsCaught >= swaps - 1);
+    }
+
+    @Test
+    void lookupKeyReadsCodesLenientlyAndKeepsOlderCodes() {
+        String code = new ConfirmationCodeGenerator().next();
+        String typed = (code.substring(0, 7) + "-" + code.substring(7)).toLowerCase().replace('1', 'l').replace('0', 'o');
+        assertEquals(code, ConfirmationCodeGenerator.lookupKey(" " + typed + " "));
+
+        assertEquals("K3XO9QLZ2A", ConfirmationCodeGenerator.lookupKey("k3xo9qlz2a"));
+        assertNull(ConfirmationCodeGenerator.lookupKey("not a code"));
+        assertNull(ConfirmationCodeGenerator.lookupKey(code + "0"));
+        assertNull(ConfirmationCodeGenerator.lookupKey(code.substring(0, 12) + "U" + code.charAt(13)));
+        assertNull(ConfirmationCodeGenerator.lookupKey(null));
+    }
+}
@@ -0,0 +1,134 @@
+package com.hazratdev.HazratHotel.service;
+
+import com.hazratdev.HazratHotel.datasource.ReadYourWrites;
+import com.hazratdev.HazratHotel.dto.RoomDTO;
+import com.hazratdev.HazratHotel.dto.RoomTypeAvailability;
+import com.hazratdev.HazratHotel.repo.RoomRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares {@link RoomAvailabilityIndex} against {@link RoomRepository#findAvailableRoomByDatesAndTypes} and checks
+ * that both return the same rooms, and its availability calendar against one such query per day and room type.
+ * Runs at a small scale by default, the full comparison is
+ * {@code mvn test -Dtest=RoomAvailabilityIndexBenchmarkTest -Dbenchmark.rooms=10000 -Dbenchmark.bookings=1000000}.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false"
+})
+@Import({RoomAvailabilityIndex.class, ReadYourWrites.class})
+class RoomAvailabilityIndexBenchmarkTest {
+
+    private static final String[] ROOM_TYPES = {"Single", "Double", "Suite", "Deluxe Suite", "Family"};
+    private static final LocalDate HORIZON_START = LocalDate.of(2025, 1, 1);
+    private static final int HORIZON_DAYS = 730;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @Test
+    void indexMatchesJpqlQuery() {
+        int roomCount = Integer.getInteger("benchmark.rooms", 1_000);
+        int bookingCount = Integer.getInteger("benchmark.bookings", 20_000);
+        int queryCount = Integer.getInteger("benchmark.queries", 50);
+        Random random = new Random(42);
+
+        insertRooms(roomCount, random);
+        insertBookings(roomCount, bookingCount, random);
+
+        availabilityIndex.rebuild();
+        assertTrue(availabilityIndex.isReady());
+
+        List<LocalDate[]> ranges = new ArrayList<>();
+        List<String> types = new ArrayList<>();
+        for (int i = 0; i < queryCount; i++) {
+            LocalDate checkIn = HORIZON_START.plusDays(random.nextInt(HORIZON_DAYS));
+            ranges.add(new LocalDate[]{checkIn, checkIn.plusDays(1 + random.nextInt(7))});
+            types.add(ROOM_TYPES[random.nextInt(ROOM_TYPES.length)]);
+        }
+
+        for (int i = 0; i < queryCount; i++) {
+            LocalDate[] range = ranges.get(i);
+            List<RoomDTO> rooms = roomRepository.findAvailableRoomByDatesAndTypes(range[0], range[1], types.get(i));
+            List<Long> roomIds = availabilityIndex.findAvailableRoomIds(range[0], range[1], types.get(i));
+            assertEquals(rooms.stream().map(RoomDTO::getId).toList(), roomIds);
+        }
+    }
+
+    @Test
+    void calendarMatchesDailyJpqlQueries() {
+        int roomCount = Integer.getInteger("benchmark.rooms", 1_000);
+        int bookingCount = Integer.getInteger("benchmark.bookings", 20_000);
+        int days = 31;
+        Random random = new Random(7);
+
+        insertRooms(roomCount, random);
+        insertBookings(roomCount, bookingCount, random);
+        availabilityIndex.rebuild();
+        assertTrue(availabilityIndex.isReady());
+        LocalDate start = HORIZON_START.plusDays(random.nextInt(HORIZON_DAYS));
+
+        List<RoomTypeAvailability> calendar = availabilityIndex.availabilityCalendar(start, days);
+
+        Map<String, int[]> expected = new TreeMap<>();
+        for (String roomType : ROOM_TYPES) {
+            int[] available = new int[days];
+            for (int day = 0; day < days; day++) {
+                LocalDate date = start.plusDays(day);
+                available[day] = (int) roomRepository.findAvailableRoomByDatesAndTypes(date, date, roomType).stream()
+                        .filter(room -> room.getRoomType().equals(roomType))
+                        .count();
+            }
+            expected.put(roomType, available);
+        }
+
+        assertEquals(List.copyOf(expected.keySet()), calendar.stream().map(RoomTypeAvailability::getRoomType).toList());
+        for (RoomTypeAvailability availability : calendar) {
+            assertArrayEquals(expected.get(availability.getRoomType()), availability.getAvailableRooms(), availability.getRoomType());
+        }
+        assertEquals(roomCount, calendar.stream().mapToInt(RoomTypeAvailability::getTotalRooms).sum());
+    }
+
+    private void insertRooms(int roomCount, Random random) {
+        List<Object[]> rows = new ArrayList<>(roomCount);
+        for (int i = 1; i <= roomCount; i++) {
+            rows.add(new Object[]{(long) i, ROOM_TYPES[random.nextInt(ROOM_TYPES.length)], BigDecimal.valueOf(50 + random.nextInt(450))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO rooms (id, room_type, room_price) VALUES (?, ?, ?)", rows);
+    }
+
+    private void insertBookings(int roomCount, int bookingCount, Random random) {
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = 1; i <= bookingCount; i++) {
+            LocalDate checkIn = HORIZON_START.plusDays(random.nextInt(HORIZON_DAYS));
+            LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(10));
+            rows.add(new Object[]{(long) i, 1 + random.nextInt(roomCount), Date.valueOf(checkIn), Date.valueOf(checkOut)});
+            if (rows.size() == 10_000 || i == bookingCount) {
+                jdbcTemplate.batchUpdate("INSERT INTO bookins (id, room_id, check_in_date, check_out_date, num_of_adults, num_of_children, total_num_of_guest) VALUES (?, ?, ?, ?, 1, 0, 1)", rows);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.hazratdev.HazratHotel.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazratdev.HazratHotel.datasource.ReadYourWrites;
+import com.hazratdev.HazratHotel.entity.Room;
+import com.hazratdev.HazratHotel.repo.RoomRepository;
+import com.hazratdev.HazratHotel.service.storage.ContentAddressedImageStorage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false"
+})
+@Import({RoomCatalogImporter.class, RoomAvailabilityIndex.class, AwsS3Service.class, ContentAddressedImageStorage.class, ReadYourWrites.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RoomCatalogImporterTest {
+
+    @Autowired
+    private RoomCatalogImporter importer;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void csvImportCreatesUpdatesAndReportsRowsInChunks() throws Exception {
+        Room existing = new Room();
+        existing.setRoomType("Single");
+        existing.setRoomPrice(BigDecimal.valueOf(50));
+        existing.setRoomDescription("Old description");
+        Long existingId = roomRepository.save(existing).getId();
+
+        StringBuilder csv = new StringBuilder("id,roomType,roomPrice,roomDescription,photo\r\n");
+        csv.append(",Suite,250.50,\"Sea view, balcony\nand \"\"bath\"\"\",suite.jpg\r\n");
+        csv.append(existingId).append(",,75,,\r\n");
+        csv.append(",Double,cheap,,\r\n");
+        csv.append("99999999,Double,80,,\r\n");
+        csv.append(",Double,80,,missing.jpg\r\n");
+        for (int i = 0; i < 1_200; i++) {
+            csv.append(",Double,").append(90 + i % 10).append(",Room ").append(i).append(",suite.jpg\r\n");
+        }
+        Path photos = tempDir.resolve("photos.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(photos))) {
+            zip.putNextEntry(new ZipEntry("suite.jpg"));
+            zip.write("not really a jpeg".getBytes(StandardCharsets.US_ASCII));
+            zip.closeEntry();
+        }
+
+        long roomsBefore = roomRepository.count();
+        List<JsonNode> events = importRooms(csv.toString(), RoomCatalogImporter.Format.CSV, photos);
+
+        JsonNode done = events.get(events.size() - 1);
+        assertEquals("done", done.get("type").asText());
+        assertEquals(1_205, done.get("rowsRead").asLong());
+        assertEquals(1_201, done.get("created").asLong());
+        assertEquals(1, done.get("updated").asLong());
+        assertEquals(3, done.get("failed").asLong());
+        assertEquals(3, events.stream().filter(event -> event.get("type").asText().equals("progress")).count());
+
+        List<String> errors = new ArrayList<>();
+        events.stream().filter(event -> event.get("type").asText().equals("error"))
+                .forEach(event -> errors.add(event.get("line").asInt() + ": " + event.get("message").asText()));
+        assertEquals(List.of("5: Invalid room price cheap", "7: Photo missing.jpg not found in the archive",
+                "6: Room 99999999 not found"), errors);
+
+        assertEquals(roomsBefore + 1_201, roomRepository.count());
+        Room updated = roomRepository.findById(existingId).orElseThrow();
+        assertEquals(0, BigDecimal.valueOf(75).compareTo(updated.getRoomPrice()));
+        assertEquals("Single", updated.getRoomType());
+        assertEquals("Old description", updated.getRoomDescription());
+
+        Room suite = roomRepository.findAll().stream().filter(room -> "Suite".equals(room.getRoomType())).findFirst().orElseThrow();
+        assertEquals("Sea view, balcony\nand \"bath\"", suite.getRoomDescription());
+        assertNotNull(suite.getRoomPhotoUrl());
+        assertTrue(Files.exists(Path.of(suite.getRoomPhotoUrl())));
+        assertEquals(1_201, roomRepository.findAll().stream().filter(room -> suite.getRoomPhotoUrl().equals(room.getRoomPhotoUrl())).count());
+    }
+
+    @Test
+    void ndjsonImportSkipsInvalidLines() throws Exception {
+        String ndjson = """
+                {"roomType":"Family","roomPrice":150,"roomDescription":"Two bedrooms"}
+                {"roomType":"Family",
+                [1, 2]
+
+                {"roomType":"Family","roomPrice":160,"photo":"family.jpg"}
+                {"ROOMTYPE":"Twin","RoomPrice":"95"}
+                """;
+
+        List<JsonNode> events = importRooms(ndjson, RoomCatalogImporter.Format.NDJSON, null);
+
+        JsonNode done = events.get(events.size() - 1);
+        assertEquals(5, done.get("rowsRead").asLong());
+        assertEquals(2, done.get("created").asLong());
+        assertEquals(3, done.get("failed").asLong());
+        assertEquals("Invalid JSON", events.get(0).get("message").asText());
+        assertEquals(2, events.get(0).get("line").asInt());
+        assertEquals("Expected a JSON object", events.get(1).get("message").asText());
+        assertEquals("Photo family.jpg given but no photo archive was sent", events.get(2).get("message").asText());
+        assertEquals(5, events.get(2).get("line").asInt());
+    }
+
+    private List<JsonNode> importRooms(String content, RoomCatalogImporter.Format format, Path photos) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (OutputStream progress = output) {
+            importer.importRooms(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format, photos, progress);
+        }
+        List<JsonNode> events = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            events.add(objectMapper.readTree(line));
+        }
+        return events;
+    }
+}
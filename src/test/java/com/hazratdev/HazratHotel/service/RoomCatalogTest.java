@@ -0,0 +1,125 @@
+package com.hazratdev.HazratHotel.service;
+
+import com.hazratdev.HazratHotel.datasource.ReadYourWrites;
+import com.hazratdev.HazratHotel.dto.RoomDTO;
+import com.hazratdev.HazratHotel.entity.Room;
+import com.hazratdev.HazratHotel.repo.RoomRepository;
+import com.hazratdev.HazratHotel.service.storage.ImageVariantCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false"
+})
+@Import({RoomCatalog.class, ImageVariantCache.class, ReadYourWrites.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RoomCatalogTest {
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void emptyCatalog() {
+        roomRepository.deleteAll();
+    }
+
+    @Test
+    void snapshotChangesOnlyWhenTheCatalogDoes() {
+        Long suiteId = save("Suite", 200);
+        save("Double", 90);
+        save("Suite", 210);
+
+        RoomCatalog.Snapshot first = roomCatalog.refresh();
+        assertEquals(List.of("Suite", "Double"), first.getRoomTypes());
+        assertEquals(3, first.getRooms().size());
+        assertThrows(UnsupportedOperationException.class, () -> first.getRooms().add(new RoomDTO()));
+        assertSame(first, roomCatalog.refresh());
+        assertSame(first, roomCatalog.current());
+
+        Long familyId = transactionTemplate.execute(status -> {
+            Long id = save("Family", 150);
+            roomCatalog.refreshAfterCommit();
+            assertSame(first, roomCatalog.current());
+            return id;
+        });
+        RoomCatalog.Snapshot second = roomCatalog.current();
+        assertNotEquals(first.getVersion(), second.getVersion());
+        assertTrue(!second.getLastModified().isBefore(first.getLastModified()));
+        assertEquals(List.of("Suite", "Double", "Family"), second.getRoomTypes());
+        assertEquals("Family", second.getRoom(familyId).orElseThrow().getRoomType());
+        assertEquals(3, first.getRooms().size());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            roomRepository.deleteById(familyId);
+            roomCatalog.refreshAfterCommit();
+            status.setRollbackOnly();
+        });
+        assertSame(second, roomCatalog.current());
+
+        assertEquals(List.of(suiteId), second.getRoomsAfter(0, 1).stream().map(RoomDTO::getId).toList());
+        assertEquals(2, second.getRoomsAfter(suiteId, 2).size());
+        assertEquals(List.of(familyId), second.getRoomsAfter(familyId - 1, 50).stream().map(RoomDTO::getId).toList());
+        assertTrue(second.getRoomsAfter(familyId, 50).isEmpty());
+
+        roomRepository.deleteById(familyId);
+        roomCatalog.refreshAfterCommit();
+        assertEquals(first.getVersion(), roomCatalog.current().getVersion());
+    }
+
+    @Test
+    void singleRoomWritesReplaceOnlyThatRoom() {
+        Long doubleId = save("Double", 90);
+        Long suiteId = save("Suite", 200);
+        RoomCatalog.Snapshot first = roomCatalog.refresh();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Room suite = roomRepository.findById(suiteId).orElseThrow();
+            suite.setRoomPrice(BigDecimal.valueOf(250));
+            roomCatalog.refreshRoomAfterCommit(suiteId);
+            assertSame(first, roomCatalog.current());
+        });
+        RoomCatalog.Snapshot second = roomCatalog.current();
+        assertEquals(0, BigDecimal.valueOf(250).compareTo(second.getRoom(suiteId).orElseThrow().getRoomPrice()));
+        assertSame(first.getRoom(doubleId).orElseThrow(), second.getRoom(doubleId).orElseThrow());
+        assertSame(second, roomCatalog.refreshRoom(suiteId));
+
+        Long familyId = save("Family", 150);
+        roomCatalog.refreshRoomAfterCommit(familyId);
+        roomRepository.deleteById(doubleId);
+        roomCatalog.refreshRoomAfterCommit(doubleId);
+        RoomCatalog.Snapshot third = roomCatalog.current();
+        assertEquals(List.of(suiteId, familyId), third.getRooms().stream().map(RoomDTO::getId).toList());
+        assertEquals(List.of("Suite", "Family"), third.getRoomTypes());
+
+        assertEquals(third.getVersion(), roomCatalog.refresh().getVersion());
+        assertSame(third, roomCatalog.current());
+    }
+
+    private Long save(String roomType, int price) {
+        Room room = new Room();
+        room.setRoomType(roomType);
+        room.setRoomPrice(BigDecimal.valueOf(price));
+        return roomRepository.save(room).getId();
+    }
+}
@@ -0,0 +1,189 @@
+package com.hazratdev.HazratHotel.service;
+
+import com.hazratdev.HazratHotel.datasource.ReadYourWrites;
+import com.hazratdev.HazratHotel.dto.RoomDTO;
+import com.hazratdev.HazratHotel.entity.Room;
+import com.hazratdev.HazratHotel.repo.RoomRepository;
+import com.hazratdev.HazratHotel.service.storage.ImageVariantCache;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks {@link RoomSearchIndex} against a plain scan of the catalog while rooms are added, changed and deleted. With
+ * {@code -Pbenchmark} it also prints the time of its searches next to the {@code LIKE} query of
+ * {@link RoomRepository#findAvailableRoomByDatesAndTypes}, at a small scale by default, a larger one is for example
+ * {@code mvn -Pbenchmark test -Dtest=RoomSearchIndexTest -Dbenchmark.rooms=20000}.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false"
+})
+@Import({RoomSearchIndex.class, RoomCatalog.class, ImageVariantCache.class, ReadYourWrites.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RoomSearchIndexTest {
+
+    private static final String[] ROOM_TYPES = {"Single", "Double", "Suite", "Deluxe Suite", "Family"};
+    private static final String[] FEATURES = {"sea view", "balcony", "king bed", "twin beds", "bathtub", "kitchenette", "garden", "quiet"};
+    private static final String[][] QUERIES = {
+            {null, "suite"}, {"sea", null}, {"king bed", "deluxe"}, {"balc", null}, {"quiet garden", "family"}, {null, null}
+    };
+
+    @Autowired
+    private RoomSearchIndex roomSearchIndex;
+
+    @Autowired
+    private RoomCatalog roomCatalog;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void searchMatchesWordsAndPriceAndFollowsCatalogChanges() {
+        jdbcTemplate.update("DELETE FROM rooms");
+        Long seaSuite = save("Deluxe Suite", "119.99", "Sea view, king-size bed");
+        Long garden = save("Double", "80", "Garden side, twin beds");
+        Long cheap = save("Single", "45.50", null);
+        roomCatalog.refresh();
+
+        assertEquals(List.of(seaSuite), ids(roomSearchIndex.search(null, "suite", null, null)));
+        assertEquals(List.of(seaSuite), ids(roomSearchIndex.search("SEA KING", null, null, null)));
+        assertEquals(List.of(seaSuite, garden), ids(roomSearchIndex.search("be", null, null, null)));
+        assertEquals(List.of(garden, cheap), ids(roomSearchIndex.search(null, null, null, new BigDecimal("119.98"))));
+        assertEquals(List.of(seaSuite), ids(roomSearchIndex.search(null, null, new BigDecimal("80.001"), null)));
+        assertEquals(List.of(garden), ids(roomSearchIndex.search("twin", "double", new BigDecimal("80"), new BigDecimal("80.00"))));
+        assertTrue(roomSearchIndex.search("penthouse", null, null, null).isEmpty());
+        assertTrue(roomSearchIndex.search("---", null, null, null).isEmpty());
+        assertTrue(roomSearchIndex.search(null, " / ", null, null).isEmpty());
+        assertEquals(List.of(seaSuite, garden, cheap), ids(roomSearchIndex.search("  ", "", null, null)));
+
+        Room room = roomRepository.findById(garden).orElseThrow();
+        room.setRoomDescription("Sea view, bunk beds");
+        room.setRoomPrice(new BigDecimal("150"));
+        roomRepository.save(room);
+        roomRepository.deleteById(seaSuite);
+        Long family = save("Family Suite", "150", "Sea view");
+        roomCatalog.refresh();
+
+        assertEquals(List.of(garden, family), ids(roomSearchIndex.search("sea", null, new BigDecimal("150"), new BigDecimal("150"))));
+        assertEquals(List.of(family), ids(roomSearchIndex.search(null, "suite", null, null)));
+        assertTrue(roomSearchIndex.search("twin", null, null, null).isEmpty());
+        assertTrue(roomSearchIndex.search("king", null, null, null).isEmpty());
+
+        Long royalSuite = save("Royal Suite", "99999999999999999999999.99", null);
+        roomCatalog.refresh();
+        assertEquals(List.of(royalSuite), ids(roomSearchIndex.search("royal", null, new BigDecimal("1000000"), null)));
+        assertEquals(List.of(family), ids(roomSearchIndex.search(null, "suite", null, new BigDecimal("1000"))));
+    }
+
+    @Test
+    void searchAgreesWithScanningTheCatalog() {
+        Random random = new Random(42);
+        seedAndChange(2_000, random);
+        roomSearchIndex.search(null, null, null, null);
+
+        for (String[] query : QUERIES) {
+            BigDecimal min = BigDecimal.valueOf(random.nextInt(250));
+            BigDecimal max = min.add(BigDecimal.valueOf(random.nextInt(300)));
+            List<RoomDTO> found = roomSearchIndex.search(query[0], query[1], min, max);
+            assertEquals(ids(scan(query[0], query[1], min, max)), ids(found), String.join("/", String.valueOf(query[0]), String.valueOf(query[1])));
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void compareSearchWithLikeQuery() {
+        int roomCount = Integer.getInteger("benchmark.rooms", 2_000);
+        Random random = new Random(42);
+        seedAndChange(roomCount, random);
+        long started = System.nanoTime();
+        roomSearchIndex.search(null, null, null, null);
+        long reindexNanos = System.nanoTime() - started;
+
+        long indexNanos = 0;
+        for (String[] query : QUERIES) {
+            BigDecimal min = BigDecimal.valueOf(random.nextInt(250));
+            BigDecimal max = min.add(BigDecimal.valueOf(random.nextInt(300)));
+            started = System.nanoTime();
+            roomSearchIndex.search(query[0], query[1], min, max);
+            indexNanos += System.nanoTime() - started;
+        }
+
+        started = System.nanoTime();
+        for (String[] query : QUERIES) {
+            roomRepository.findAvailableRoomByDatesAndTypes(null, null, query[1] == null ? "" : query[1]);
+        }
+        long likeNanos = System.nanoTime() - started;
+        System.out.printf("room search benchmark: rooms=%d reindex=%.1fms index=%.1fus/search like=%.1fus/query%n",
+                roomCount, reindexNanos / 1e6, indexNanos / 1e3 / QUERIES.length, likeNanos / 1e3 / QUERIES.length);
+    }
+
+    /**
+     * Fills the catalog with random rooms and indexes it, then changes and deletes some of them so the next search
+     * reindexes incrementally.
+     */
+    private void seedAndChange(int roomCount, Random random) {
+        jdbcTemplate.update("DELETE FROM rooms");
+        List<Object[]> rows = new ArrayList<>(roomCount);
+        for (int i = 1; i <= roomCount; i++) {
+            rows.add(new Object[]{(long) i, ROOM_TYPES[random.nextInt(ROOM_TYPES.length)],
+                    BigDecimal.valueOf(3_000 + random.nextInt(50_000), 2), description(random)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO rooms (id, room_type, room_price, room_description) VALUES (?, ?, ?, ?)", rows);
+        roomCatalog.refresh();
+        roomSearchIndex.search(null, null, null, null);
+
+        jdbcTemplate.update("UPDATE rooms SET room_description = 'quiet garden, sea view' WHERE MOD(id, 7) = 0");
+        jdbcTemplate.update("DELETE FROM rooms WHERE MOD(id, 11) = 0");
+        roomCatalog.refresh();
+    }
+
+    private List<RoomDTO> scan(String text, String roomType, BigDecimal min, BigDecimal max) {
+        return roomCatalog.current().getRooms().stream()
+                .filter(room -> matchesAll(roomType, room.getRoomType()))
+                .filter(room -> matchesAll(text, room.getRoomType() + " " + room.getRoomDescription()))
+                .filter(room -> room.getRoomPrice().compareTo(min) >= 0 && room.getRoomPrice().compareTo(max) <= 0)
+                .toList();
+    }
+
+    private static boolean matchesAll(String query, String value) {
+        if (query == null) return true;
+        List<String> words = List.of(value.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"));
+        for (String wanted : query.toLowerCase(Locale.ROOT).split(" ")) {
+            if (words.stream().noneMatch(word -> word.startsWith(wanted))) return false;
+        }
+        return true;
+    }
+
+    private static String description(Random random) {
+        return FEATURES[random.nextInt(FEATURES.length)] + ", " + FEATURES[random.nextInt(FEATURES.length)];
+    }
+
+    private Long save(String roomType, String price, String description) {
+        Room room = new Room();
+        room.setRoomType(roomType);
+        room.setRoomPrice(new BigDecimal(price));
+        room.setRoomDescription(description);
+        return roomRepository.save(room).getId();
+    }
+
+    private static List<Long> ids(List<RoomDTO> rooms) {
+        return rooms.stream().map(RoomDTO::getId).toList();
+    }
+}
@@ -0,0 +1,76 @@
+package com.hazratdev.HazratHotel.service;
+
+import com.hazratdev.HazratHotel.dto.BookingRequest;
+import com.hazratdev.HazratHotel.dto.Response;
+import com.hazratdev.HazratHotel.entity.Room;
+import com.hazratdev.HazratHotel.entity.User;
+import com.hazratdev.HazratHotel.repo.RoomRepository;
+import com.hazratdev.HazratHotel.repo.UserRepository;
+import com.hazratdev.HazratHotel.service.impl.BookingService;
+import com.hazratdev.HazratHotel.service.impl.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Deleting a user deletes its bookings through the cascade, which must free their rooms in the availability index
+ * and drop them from the confirmation code cache like a cancellation does.
+ */
+@SpringBootTest
+class UserServiceDeleteUserTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.now().plusYears(2);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void deletingAUserFreesItsRoomsAndForgetsItsCodes() {
+        Room room = new Room();
+        room.setRoomType("Suite");
+        room.setRoomPrice(BigDecimal.valueOf(150));
+        Long roomId = roomRepository.save(room).getId();
+        availabilityIndex.rebuild();
+        User user = new User();
+        user.setName("Guest");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPhoneNumber("0100000000");
+        user.setPassword("not-used");
+        user.setRole("USER");
+        Long userId = userRepository.save(user).getId();
+
+        BookingRequest booking = new BookingRequest();
+        booking.setCheckInDate(CHECK_IN);
+        booking.setCheckOutDate(CHECK_IN.plusDays(3));
+        booking.setNumOfAdults(2);
+        Response booked = bookingService.saveBooking(roomId, userId, booking);
+        String code = booked.getBookingConfirmationCode();
+        assertEquals(200, bookingService.findBookingByConfirmationCode(code).getStatusCode());
+        assertFalse(availabilityIndex.isAvailable(roomId, CHECK_IN, CHECK_IN.plusDays(3)));
+
+        assertEquals(200, userService.deleteUser(userId.toString()).getStatusCode());
+
+        assertTrue(availabilityIndex.isAvailable(roomId, CHECK_IN, CHECK_IN.plusDays(3)));
+        assertEquals(400, bookingService.findBookingByConfirmationCode(code).getStatusCode());
+    }
+}
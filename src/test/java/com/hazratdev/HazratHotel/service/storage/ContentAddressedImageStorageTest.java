@@ -0,0 +1,99 @@
+package com.hazratdev.HazratHotel.service.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentAddressedImageStorageTest {
+
+    private static final Duration GRACE = Duration.ofMinutes(60);
+
+    @TempDir
+    Path storageRoot;
+
+    private ContentAddressedImageStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new ContentAddressedImageStorage();
+        ReflectionTestUtils.setField(storage, "storageDirectory", storageRoot.toString());
+    }
+
+    @Test
+    void identicalContentIsStoredOnce() throws Exception {
+        String first = storage.store(content("same photo"), "jpg");
+        Path staged = Files.writeString(storage.stagingDirectory().resolve("upload.jpg"), "same photo");
+        String second = storage.store(staged, "jpg");
+        String other = storage.store(content("other photo"), "jpg");
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertTrue(Files.exists(staged));
+        assertEquals(2, storedFiles());
+        String hash = Path.of(first).getFileName().toString().replace(".jpg", "");
+        assertEquals(storageRoot.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash + ".jpg")
+                .toAbsolutePath().normalize().toString(), first);
+    }
+
+    @Test
+    void storingKnownContentAgainRestartsItsGracePeriod() throws Exception {
+        Path file = Path.of(storage.store(content("photo"), "png"));
+        age(file);
+
+        storage.store(content("photo"), "png");
+
+        assertEquals(0, storage.deleteUnreferenced(Set.of(), GRACE));
+        assertTrue(Files.exists(file));
+    }
+
+    @Test
+    void deletesOnlyOldUnreferencedFiles() throws Exception {
+        Path referenced = Path.of(storage.store(content("kept, a room uses it"), "jpg"));
+        Path orphan = Path.of(storage.store(content("deleted"), "jpg"));
+        Path fresh = Path.of(storage.store(content("kept, still in its grace period"), "jpg"));
+        Path variant = Files.writeString(Files.createDirectories(storageRoot.resolve(ImageVariantCache.VARIANTS_DIRECTORY))
+                .resolve("400-photo.jpg"), "variant");
+        age(referenced);
+        age(orphan);
+        age(variant);
+
+        int deleted = storage.deleteUnreferenced(Set.of(referenced.toString(), "https://cdn.example.com/photo.jpg"), GRACE);
+
+        assertEquals(1, deleted);
+        assertFalse(Files.exists(orphan));
+        assertTrue(Files.exists(referenced));
+        assertTrue(Files.exists(fresh));
+        assertTrue(Files.exists(variant));
+    }
+
+    private long storedFiles() throws Exception {
+        Path staging = storage.stagingDirectory();
+        try (Stream<Path> files = Files.walk(storageRoot)) {
+            return files.filter(Files::isRegularFile).filter(file -> !file.startsWith(staging)).count();
+        }
+    }
+
+    private static void age(Path file) throws Exception {
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(GRACE).minusSeconds(60)));
+    }
+
+    private static ByteArrayInputStream content(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,81 @@
+package com.hazratdev.HazratHotel.service.storage;
+
+import com.hazratdev.HazratHotel.entity.Room;
+import com.hazratdev.HazratHotel.repo.RoomRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Images that a room still points to survive collection however old they are, unreferenced ones only
+ * once the grace period is over.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "file.storage.gc-grace-minutes=60"
+})
+@Import({ImageGarbageCollector.class, ContentAddressedImageStorage.class})
+class ImageGarbageCollectorTest {
+
+    @TempDir
+    static Path storageRoot;
+
+    @DynamicPropertySource
+    static void storageLocation(DynamicPropertyRegistry registry) {
+        registry.add("file.storage.location", () -> storageRoot.toString());
+    }
+
+    @Autowired
+    private ImageGarbageCollector imageGarbageCollector;
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Test
+    void keepsPhotosOfRoomsAndRecentUploads() throws Exception {
+        Path roomPhoto = store("room photo");
+        Path replacedPhoto = store("replaced photo");
+        Path recentUpload = store("upload of a room not saved yet");
+        age(roomPhoto);
+        age(replacedPhoto);
+
+        Room room = new Room();
+        room.setRoomType("Suite");
+        room.setRoomPrice(BigDecimal.valueOf(200));
+        room.setRoomPhotoUrl(roomPhoto.toString());
+        roomRepository.saveAndFlush(room);
+
+        imageGarbageCollector.collect();
+
+        assertTrue(Files.exists(roomPhoto));
+        assertTrue(Files.exists(recentUpload));
+        assertFalse(Files.exists(replacedPhoto));
+    }
+
+    private Path store(String content) throws Exception {
+        return Path.of(imageStorage.store(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), "jpg"));
+    }
+
+    private static void age(Path file) throws Exception {
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+    }
+}
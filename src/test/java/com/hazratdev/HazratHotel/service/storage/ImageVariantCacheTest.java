@@ -0,0 +1,90 @@
+package com.hazratdev.HazratHotel.service.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageVariantCacheTest {
+
+    @TempDir
+    Path storageRoot;
+
+    private ImageVariantCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ImageVariantCache();
+        ReflectionTestUtils.setField(cache, "storageDirectory", storageRoot.toString());
+    }
+
+    @Test
+    void concurrentRequestsResizeOnce() throws Exception {
+        Path source = writeImage("ab/cd/photo.png", 2000, 1000);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Path>> results = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return cache.variant(source, "ab/cd/photo.png", 400);
+            }));
+        }
+        start.countDown();
+        Path variant = results.get(0).get();
+        FileTime firstWrite = Files.getLastModifiedTime(variant);
+        for (Future<Path> result : results) {
+            assertEquals(variant, result.get());
+        }
+        executor.shutdown();
+
+        assertEquals(storageRoot.resolve("variants/480/ab/cd/photo.png"), variant);
+        assertEquals(firstWrite, Files.getLastModifiedTime(variant));
+        BufferedImage image = ImageIO.read(variant.toFile());
+        assertEquals(480, image.getWidth());
+        assertEquals(240, image.getHeight());
+    }
+
+    @Test
+    void narrowImagesAreServedAsTheyAre() throws Exception {
+        Path source = writeImage("small.png", 100, 50);
+        assertEquals(source, cache.variant(source, "small.png", 160));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedVariants() throws Exception {
+        Path first = writeImage("first.png", 1000, 1000);
+        Path second = writeImage("second.png", 1000, 1000);
+        Path firstVariant = cache.variant(first, "first.png", 160);
+        ReflectionTestUtils.setField(cache, "maxBytes", Files.size(firstVariant) + 1);
+
+        Path secondVariant = cache.variant(second, "second.png", 160);
+
+        assertFalse(Files.exists(firstVariant));
+        assertTrue(Files.exists(secondVariant));
+        assertEquals(Files.size(secondVariant), cache.cachedBytes());
+    }
+
+    private Path writeImage(String relativePath, int width, int height) throws Exception {
+        Path file = storageRoot.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", file.toFile());
+        return file;
+    }
+}
@@ -0,0 +1,51 @@
+package com.hazratdev.HazratHotel.service.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PendingImageTest {
+
+    private final AtomicInteger cleanUps = new AtomicInteger();
+
+    @Test
+    void removesTheStagedFileAfterTheCallback() {
+        CompletableFuture<String> stored = new CompletableFuture<>();
+        PendingImage image = new PendingImage("staging/a.jpg", stored, cleanUps::incrementAndGet);
+        StringBuilder location = new StringBuilder();
+
+        image.whenStored(location::append);
+        assertEquals(0, cleanUps.get());
+        stored.complete("ab/cd/abcd.jpg");
+
+        assertEquals("ab/cd/abcd.jpg", location.toString());
+        assertEquals(1, cleanUps.get());
+    }
+
+    @Test
+    void keepsTheStagedFileWhenTheCallbackFails() {
+        PendingImage image = new PendingImage("staging/a.jpg", CompletableFuture.completedFuture("ab/cd/abcd.jpg"),
+                cleanUps::incrementAndGet);
+
+        image.whenStored(location -> {
+            throw new IllegalStateException("room update failed");
+        });
+
+        assertEquals(0, cleanUps.get());
+    }
+
+    @Test
+    void keepsTheStagedFileWhenStoringFails() {
+        PendingImage image = new PendingImage("staging/a.jpg",
+                CompletableFuture.failedFuture(new IllegalStateException("disk full")), cleanUps::incrementAndGet);
+        AtomicInteger callbacks = new AtomicInteger();
+
+        image.whenStored(location -> callbacks.incrementAndGet());
+
+        assertEquals(0, callbacks.get());
+        assertEquals(0, cleanUps.get());
+    }
+}
@@ -0,0 +1,55 @@
+package com.hazratdev.HazratHotel.utils;
+
+import com.hazratdev.HazratHotel.entity.User;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JWTUtilsTest {
+
+    private final JWTUtils jwtUtils = new JWTUtils();
+
+    @Test
+    void verifiedTokenIsCachedUntilExpiry() {
+        User user = new User();
+        user.setEmail("guest@example.com");
+        user.setRole("USER");
+        String token = jwtUtils.generateToken(user);
+
+        VerifiedToken first = jwtUtils.verifyToken(token);
+        assertEquals("guest@example.com", first.getSubject());
+        assertSame(first, jwtUtils.verifyToken(token));
+        assertTrue(jwtUtils.isValidToken(token, user));
+    }
+
+    @Test
+    void tokenCarriesStatelessPrincipalClaims() {
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("admin@example.com");
+        user.setRole("ADMIN");
+        user.setSecurityVersion(3);
+
+        VerifiedToken verified = jwtUtils.verifyToken(jwtUtils.generateToken(user));
+        assertTrue(verified.carriesPrincipal());
+        assertEquals(7L, verified.getUserId());
+        assertEquals("ADMIN", verified.getRole());
+        assertEquals(3, verified.getSecurityVersion());
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        User user = new User();
+        user.setEmail("guest@example.com");
+        String token = jwtUtils.generateToken(user);
+        int position = token.lastIndexOf('.') + 5;
+        char replacement = token.charAt(position) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, position) + replacement + token.substring(position + 1);
+
+        assertThrows(JwtException.class, () -> jwtUtils.verifyToken(tampered));
+    }
+}
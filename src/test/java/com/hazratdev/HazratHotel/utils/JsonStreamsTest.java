@@ -0,0 +1,83 @@
+package com.hazratdev.HazratHotel.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazratdev.HazratHotel.entity.User;
+import com.hazratdev.HazratHotel.repo.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The streamed array must hold every row once and in order, while the persistence context never keeps more than
+ * one batch of entities.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false"
+})
+class JsonStreamsTest {
+
+    private static final int USERS = 1_234;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void writesEveryRowAndClearsThePersistenceContextAsItGoes() throws Exception {
+        jdbcTemplate.update("DELETE FROM users");
+        List<Object[]> rows = new ArrayList<>(USERS);
+        for (int i = 1; i <= USERS; i++) {
+            rows.add(new Object[]{(long) i, "User " + i, "user" + i + "@example.com", "0100000000", "not-used", "USER", 0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email, phone_number, password, role, security_version) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        Session session = entityManager.unwrap(Session.class);
+        int[] mostManaged = {0};
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written;
+        try (Stream<User> users = userRepository.streamAllBy()) {
+            written = JsonStreams.writeArray(users, user -> {
+                mostManaged[0] = Math.max(mostManaged[0], session.getStatistics().getEntityCount());
+                return Utils.mapUserEntityToUserDTO(user);
+            }, objectMapper, entityManager, out);
+        }
+
+        JsonNode array = objectMapper.readTree(out.toByteArray());
+        assertEquals(USERS, written);
+        assertEquals(USERS, array.size());
+        for (int i = 0; i < USERS; i++) {
+            assertEquals("user" + (i + 1) + "@example.com", array.get(i).get("email").asText());
+        }
+        assertTrue(mostManaged[0] <= 500, "entities kept in the persistence context: " + mostManaged[0]);
+    }
+
+    @Test
+    void writesAnEmptyArrayForNoRows() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = JsonStreams.writeArray(Stream.<User>empty(), Utils::mapUserEntityToUserDTO, objectMapper, entityManager, out);
+
+        assertEquals(0, written);
+        assertEquals("[]", out.toString());
+    }
+}
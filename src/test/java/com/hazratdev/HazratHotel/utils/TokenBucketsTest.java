@@ -0,0 +1,77 @@
+package com.hazratdev.HazratHotel.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketsTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(42 * SECOND);
+
+    @Test
+    void burstThenOneTokenPerInterval() {
+        TokenBuckets buckets = new TokenBuckets(3, Duration.ofSeconds(10), 100, 4, clock::get);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, buckets.tryTake("10.0.0.1"));
+        }
+        assertEquals(10 * SECOND, buckets.tryTake("10.0.0.1"));
+        assertEquals(0, buckets.tryTake("10.0.0.2"));
+
+        clock.addAndGet(4 * SECOND);
+        assertEquals(6 * SECOND, buckets.tryTake("10.0.0.1"));
+        clock.addAndGet(6 * SECOND);
+        assertEquals(0, buckets.tryTake("10.0.0.1"));
+        assertEquals(10 * SECOND, buckets.tryTake("10.0.0.1"));
+
+        clock.addAndGet(3_600 * SECOND);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, buckets.tryTake("10.0.0.1"));
+        }
+    }
+
+    @Test
+    void memoryStaysBoundedAndIdleBucketsAreDropped() {
+        TokenBuckets buckets = new TokenBuckets(1, Duration.ofMinutes(1), 64, 4, clock::get);
+        for (int i = 0; i < 10_000; i++) {
+            buckets.tryTake("user" + i + "@example.com");
+            assertTrue(buckets.size() <= 64);
+        }
+
+        clock.addAndGet(61 * SECOND);
+        buckets.evictIdle();
+        assertEquals(0, buckets.size());
+    }
+
+    @Test
+    void concurrentTakesNeverExceedTheBurst() throws Exception {
+        TokenBuckets buckets = new TokenBuckets(1_000, Duration.ofHours(1), 100, 4, clock::get);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> takers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            takers.add(executor.submit(() -> {
+                int taken = 0;
+                for (int i = 0; i < 1_000; i++) {
+                    if (buckets.tryTake("guest@example.com") == 0) taken++;
+                }
+                return taken;
+            }));
+        }
+        int taken = 0;
+        for (Future<Integer> taker : takers) {
+            taken += taker.get();
+        }
+        executor.shutdown();
+        assertEquals(1_000, taken);
+    }
+}
@@ -0,0 +1,20 @@
+package com.hazratdev.HazratHotel.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UtilsTest {
+
+    @Test
+    void pageSizeDefaultsAndClamps() {
+        assertEquals(50, Utils.pageSize(null));
+        assertEquals(1, Utils.pageSize(0));
+        assertEquals(1, Utils.pageSize(-20));
+        assertEquals(1, Utils.pageSize(1));
+        assertEquals(120, Utils.pageSize(120));
+        assertEquals(500, Utils.pageSize(500));
+        assertEquals(500, Utils.pageSize(501));
+        assertEquals(500, Utils.pageSize(Integer.MAX_VALUE));
+    }
+}